@@ -0,0 +1,85 @@
+// -*- mode: java; c-basic-offset: 2; -*-
+// Released under the GNU General Public License v3.0
+// https://www.gnu.org/licenses/gpl-3.0.en.html
+
+package io.mohamed.CustomSpotlight;
+
+import com.google.appinventor.components.runtime.util.YailList;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parses the block lists of ShowMultipleSpotlightsAtPositions, the way the block does before building the
+ * targets.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ListIngestionBenchmark {
+    @Param({"1", "10", "100", "1000"})
+    public int size;
+
+    private YailList xPositions;
+    private YailList yPositions;
+    private YailList titles;
+    private YailList descriptions;
+    private YailList radii;
+    private YailList targetIds;
+
+    @Setup
+    public void setUp() {
+      Object[] x = new Object[size];
+      Object[] y = new Object[size];
+      Object[] texts = new Object[size];
+      Object[] r = new Object[size];
+      Object[] ids = new Object[size];
+      for (int i = 0; i < size; i++) {
+        // the blocks pass numbers as Java numbers or as strings, both are parsed.
+        x[i] = i % 2 == 0 ? (Object) (i * 10.0) : String.valueOf(i * 10);
+        y[i] = i * 20;
+        texts[i] = "<b>Target " + i + "</b>";
+        r[i] = i % 2 == 0 ? (Object) 100 : "100";
+        ids[i] = "target" + i;
+      }
+      xPositions = YailList.makeList(x);
+      yPositions = YailList.makeList(y);
+      titles = YailList.makeList(texts);
+      descriptions = YailList.makeList(texts);
+      radii = YailList.makeList(r);
+      targetIds = YailList.makeList(ids);
+    }
+
+    @Benchmark
+    public void parse(Blackhole blackhole) {
+      float[] xArr = ListParser.parseFloats("xPositions", xPositions.toArray());
+      float[] yArr = ListParser.parseFloats("yPositions", yPositions.toArray());
+      String[] titlesArr = ListParser.parseStrings(titles.toArray());
+      String[] descriptionsArr = ListParser.parseStrings(descriptions.toArray());
+      float[] radiiArr = ListParser.parseRadii(radii.toArray());
+      String[] targetIdsArr = ListParser.parseStrings(targetIds.toArray());
+      ListParser.checkLengths(new String[] {"xPositions", "yPositions", "titles", "descriptions", "radii", "targetIds"},
+        xArr.length, yArr.length, titlesArr.length, descriptionsArr.length, radiiArr.length, targetIdsArr.length);
+      blackhole.consume(xArr);
+      blackhole.consume(yArr);
+      blackhole.consume(titlesArr);
+      blackhole.consume(descriptionsArr);
+      blackhole.consume(radiiArr);
+      blackhole.consume(targetIdsArr);
+    }
+}
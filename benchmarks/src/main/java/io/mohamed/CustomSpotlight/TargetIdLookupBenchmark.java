@@ -0,0 +1,60 @@
+// -*- mode: java; c-basic-offset: 2; -*-
+// Released under the GNU General Public License v3.0
+// https://www.gnu.org/licenses/gpl-3.0.en.html
+
+package io.mohamed.CustomSpotlight;
+
+import com.takusemba.spotlight.CustomTarget;
+import com.takusemba.spotlight.Target;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Looks up the id of each target of a prepared tour, the way the TargetClosed event does when each target is
+ * closed.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TargetIdLookupBenchmark {
+    @Param({"1", "10", "100", "1000"})
+    public int size;
+
+    private PreparedTour tour;
+    private Target[] targets;
+
+    @Setup
+    public void setUp() {
+      tour = new PreparedTour("tour", 1000, null);
+      targets = new Target[size];
+      for (int i = 0; i < size; i++) {
+        targets[i] = TargetBuilders.build(new CustomTarget.Builder(null)
+          .setPoint(i * 10, i * 20)
+          .setRadius(100));
+        tour.addTarget(targets[i], "target" + i);
+      }
+    }
+
+    @Benchmark
+    public void lookUp(Blackhole blackhole) {
+      for (Target target : targets) {
+        blackhole.consume(tour.getTargetId(target));
+      }
+    }
+}
@@ -0,0 +1,92 @@
+// -*- mode: java; c-basic-offset: 2; -*-
+// Released under the GNU General Public License v3.0
+// https://www.gnu.org/licenses/gpl-3.0.en.html
+
+package io.mohamed.CustomSpotlight;
+
+import android.view.View;
+
+import com.takusemba.spotlight.CustomTarget;
+import com.takusemba.spotlight.Target;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builds targets from points, without a context or views: the CustomTarget.Builder targets of the position blocks,
+ * TrackedTarget wrappers that track no view, and a group target. It doesn't cover SimpleTarget.Builder.build, the
+ * component blocks' view lookups and text layouts, LazyTarget or TextCache, which need a real Activity.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ViewlessTargetBenchmark {
+    @Param({"1", "10", "100", "1000"})
+    public int size;
+
+    private float[] xArr;
+    private float[] yArr;
+    private float[] radiiArr;
+
+    @Setup
+    public void setUp() {
+      xArr = new float[size];
+      yArr = new float[size];
+      radiiArr = new float[size];
+      for (int i = 0; i < size; i++) {
+        xArr[i] = i * 10;
+        yArr[i] = i * 20;
+        radiiArr[i] = 100;
+      }
+    }
+
+    @Benchmark
+    public Target[] plainTargets() {
+      Target[] targets = new Target[size];
+      for (int i = 0; i < size; i++) {
+        targets[i] = build(i);
+      }
+      return targets;
+    }
+
+    @Benchmark
+    public Target[] trackedWrappers() {
+      Target[] targets = new Target[size];
+      for (int i = 0; i < size; i++) {
+        targets[i] = new TrackedTarget(build(i), null, true, null, 0, null);
+      }
+      return targets;
+    }
+
+    @Benchmark
+    public void groupTarget(Blackhole blackhole) {
+      float[] holes = new float[size * 3];
+      for (int i = 0; i < size; i++) {
+        holes[i * 3] = xArr[i];
+        holes[i * 3 + 1] = yArr[i];
+        holes[i * 3 + 2] = radiiArr[i];
+      }
+      blackhole.consume(new GroupTarget(build(0), new View[size], holes));
+    }
+
+    private Target build(int i) {
+      return TargetBuilders.build(new CustomTarget.Builder(null)
+        .setPoint(xArr[i], yArr[i])
+        .setRadius(radiiArr[i]));
+    }
+}
@@ -0,0 +1,77 @@
+// -*- mode: java; c-basic-offset: 2; -*-
+// Released under the GNU General Public License v3.0
+// https://www.gnu.org/licenses/gpl-3.0.en.html
+
+package io.mohamed.CustomSpotlight;
+
+import com.takusemba.spotlight.CustomTarget;
+import com.takusemba.spotlight.Target;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sets a tour of point targets up from its parsed lists, the way PrepareTour does when the UI thread is idle:
+ * the targets are built, added with their ids and handed to the tour. The targets are CustomTarget.Builder targets
+ * without a context, so the Show and PrepareTour blocks' view lookups, text layouts and SimpleTarget.Builder.build
+ * aren't measured.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ViewlessTourSetupBenchmark {
+    @Param({"1", "10", "100", "1000"})
+    public int size;
+
+    private float[] xArr;
+    private float[] yArr;
+    private float[] radiiArr;
+    private String[] targetIdsArr;
+
+    @Setup
+    public void setUp() {
+      xArr = new float[size];
+      yArr = new float[size];
+      radiiArr = new float[size];
+      targetIdsArr = new String[size];
+      for (int i = 0; i < size; i++) {
+        xArr[i] = i * 10;
+        yArr[i] = i * 20;
+        radiiArr[i] = 100;
+        targetIdsArr[i] = "target" + i;
+      }
+    }
+
+    @Benchmark
+    public void setUpTour(Blackhole blackhole) {
+      PreparedTour tour = new PreparedTour("tour", 1000, new PreparedTour.Preparer() {
+        @Override
+        public void prepare(PreparedTour tour) {
+          for (int i = 0; i < size; i++) {
+            Target target = TargetBuilders.build(new CustomTarget.Builder(null)
+              .setPoint(xArr[i], yArr[i])
+              .setRadius(radiiArr[i]));
+            tour.addTarget(target, targetIdsArr[i]);
+          }
+        }
+      });
+      // getTour() needs the UI thread's message queue, prepare() does the same work without it.
+      tour.prepare();
+      blackhole.consume(tour);
+    }
+}
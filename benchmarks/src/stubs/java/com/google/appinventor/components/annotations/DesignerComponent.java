@@ -0,0 +1,18 @@
+// -*- mode: java; c-basic-offset: 2; -*-
+// Released under the GNU General Public License v3.0
+// https://www.gnu.org/licenses/gpl-3.0.en.html
+
+package com.google.appinventor.components.annotations;
+
+import com.google.appinventor.components.common.ComponentCategory;
+
+/** Compile-time stub of the App Inventor annotation. */
+public @interface DesignerComponent {
+    int version() default 1;
+    String versionName() default "";
+    ComponentCategory category();
+    boolean nonVisible() default false;
+    String description() default "";
+    String helpUrl() default "";
+    String iconName() default "";
+}
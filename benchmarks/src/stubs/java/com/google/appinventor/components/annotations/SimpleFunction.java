@@ -0,0 +1,10 @@
+// -*- mode: java; c-basic-offset: 2; -*-
+// Released under the GNU General Public License v3.0
+// https://www.gnu.org/licenses/gpl-3.0.en.html
+
+package com.google.appinventor.components.annotations;
+
+/** Compile-time stub of the App Inventor annotation. */
+public @interface SimpleFunction {
+    String description() default "";
+}
@@ -0,0 +1,18 @@
+// -*- mode: java; c-basic-offset: 2; -*-
+// Released under the GNU General Public License v3.0
+// https://www.gnu.org/licenses/gpl-3.0.en.html
+
+package com.google.appinventor.components.common;
+
+/** Stub of the App Inventor designer property types. */
+public class PropertyTypeConstants {
+    public static final String PROPERTY_TYPE_ASSET = "asset";
+    public static final String PROPERTY_TYPE_BOOLEAN = "boolean";
+    public static final String PROPERTY_TYPE_CHOICES = "choices";
+    public static final String PROPERTY_TYPE_COLOR = "color";
+    public static final String PROPERTY_TYPE_FLOAT = "float";
+    public static final String PROPERTY_TYPE_INTEGER = "integer";
+    public static final String PROPERTY_TYPE_NON_NEGATIVE_FLOAT = "non_negative_float";
+    public static final String PROPERTY_TYPE_NON_NEGATIVE_INTEGER = "non_negative_integer";
+    public static final String PROPERTY_TYPE_STRING = "string";
+}
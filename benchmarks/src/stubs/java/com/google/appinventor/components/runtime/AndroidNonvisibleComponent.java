@@ -0,0 +1,18 @@
+// -*- mode: java; c-basic-offset: 2; -*-
+// Released under the GNU General Public License v3.0
+// https://www.gnu.org/licenses/gpl-3.0.en.html
+
+package com.google.appinventor.components.runtime;
+
+/** Stub of the App Inventor non-visible component base class. */
+public abstract class AndroidNonvisibleComponent implements Component {
+    protected final Form form;
+
+    protected AndroidNonvisibleComponent(Form form) {
+      this.form = form;
+    }
+
+    public Form getDispatchDelegate() {
+      return form;
+    }
+}
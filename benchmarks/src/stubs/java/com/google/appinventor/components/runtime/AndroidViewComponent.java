@@ -0,0 +1,16 @@
+// -*- mode: java; c-basic-offset: 2; -*-
+// Released under the GNU General Public License v3.0
+// https://www.gnu.org/licenses/gpl-3.0.en.html
+
+package com.google.appinventor.components.runtime;
+
+import android.view.View;
+
+/** Stub of the App Inventor visible component base class. */
+public abstract class AndroidViewComponent implements Component {
+    public abstract View getView();
+
+    public boolean Visible() {
+      return true;
+    }
+}
@@ -0,0 +1,12 @@
+// -*- mode: java; c-basic-offset: 2; -*-
+// Released under the GNU General Public License v3.0
+// https://www.gnu.org/licenses/gpl-3.0.en.html
+
+package com.google.appinventor.components.runtime;
+
+/** Stub of the App Inventor event dispatcher, events are dropped off the device. */
+public class EventDispatcher {
+    public static boolean dispatchEvent(Component component, String eventName, Object... args) {
+      return true;
+    }
+}
@@ -0,0 +1,23 @@
+// -*- mode: java; c-basic-offset: 2; -*-
+// Released under the GNU General Public License v3.0
+// https://www.gnu.org/licenses/gpl-3.0.en.html
+
+package com.google.appinventor.components.runtime;
+
+import android.app.Activity;
+
+/** Stub of the App Inventor screen, the listeners are never called off the device. */
+public class Form extends Activity implements Component {
+    public void registerForOnPause(OnPauseListener listener) {
+    }
+
+    public void registerForOnResume(OnResumeListener listener) {
+    }
+
+    public void registerForOnDestroy(OnDestroyListener listener) {
+    }
+
+    public void dispatchErrorOccurredEvent(Component component, String functionName, int errorNumber,
+        Object... messageArgs) {
+    }
+}
@@ -0,0 +1,12 @@
+// -*- mode: java; c-basic-offset: 2; -*-
+// Released under the GNU General Public License v3.0
+// https://www.gnu.org/licenses/gpl-3.0.en.html
+
+package com.google.appinventor.components.runtime.errors;
+
+/** Stub of the App Inventor runtime error. */
+public class YailRuntimeError extends RuntimeException {
+    public YailRuntimeError(String message, String errorType) {
+      super(message);
+    }
+}
@@ -0,0 +1,10 @@
+// -*- mode: java; c-basic-offset: 2; -*-
+// Released under the GNU General Public License v3.0
+// https://www.gnu.org/licenses/gpl-3.0.en.html
+
+package com.google.appinventor.components.runtime.util;
+
+/** Stub of the App Inventor error numbers. */
+public class ErrorMessages {
+    public static final int ERROR_EXTENSION_ERROR = 1801;
+}
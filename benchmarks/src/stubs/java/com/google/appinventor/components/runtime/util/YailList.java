@@ -0,0 +1,52 @@
+// -*- mode: java; c-basic-offset: 2; -*-
+// Released under the GNU General Public License v3.0
+// https://www.gnu.org/licenses/gpl-3.0.en.html
+
+package com.google.appinventor.components.runtime.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Stub of the App Inventor list. Like the real YailList, the first element is the list header, so the items
+ * start at index 1 and toArray() skips the header.
+ */
+public class YailList extends ArrayList<Object> {
+    private static final String HEADER = "*list*";
+
+    private YailList(Collection<?> items) {
+      add(HEADER);
+      addAll(items);
+    }
+
+    public static YailList makeEmptyList() {
+      return new YailList(new ArrayList<Object>());
+    }
+
+    public static YailList makeList(Object[] items) {
+      return new YailList(Arrays.asList(items));
+    }
+
+    public static YailList makeList(Collection<?> items) {
+      return new YailList(items);
+    }
+
+    @Override
+    public Object[] toArray() {
+      return subList(1, super.size()).toArray();
+    }
+
+    @Override
+    public int size() {
+      return super.size() - 1;
+    }
+
+    public Object getObject(int index) {
+      return get(index + 1);
+    }
+
+    public String getString(int index) {
+      return String.valueOf(getObject(index));
+    }
+}
@@ -0,0 +1,45 @@
+// -*- mode: java; c-basic-offset: 2; -*-
+// Released under the GNU General Public License v3.0
+// https://www.gnu.org/licenses/gpl-3.0.en.html
+
+package io.mohamed.CustomSpotlight;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Runs the extension's expensive work off the UI thread, a single worker thread is shared by all the
+ * CustomSpotlight components of the app.
+ */
+final class BackgroundWorker {
+    private static final ExecutorService EXECUTOR = Executors.newSingleThreadExecutor(new ThreadFactory() {
+      @Override
+      public Thread newThread(Runnable runnable) {
+        Thread thread = new Thread(runnable, "CustomSpotlight");
+        thread.setDaemon(true);
+        return thread;
+      }
+    });
+    private static final Handler MAIN_HANDLER = new Handler(Looper.getMainLooper());
+
+    private BackgroundWorker() {
+    }
+
+    /**
+     * Runs the given task on the worker thread.
+     */
+    static void execute(Runnable task) {
+      EXECUTOR.execute(task);
+    }
+
+    /**
+     * Runs the given task on the UI thread.
+     */
+    static void postToMain(Runnable task) {
+      MAIN_HANDLER.post(task);
+    }
+}
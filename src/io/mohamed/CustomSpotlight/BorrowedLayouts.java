@@ -0,0 +1,75 @@
+// -*- mode: java; c-basic-offset: 2; -*-
+// Released under the GNU General Public License v3.0
+// https://www.gnu.org/licenses/gpl-3.0.en.html
+
+package io.mohamed.CustomSpotlight;
+
+import android.view.View;
+import android.view.ViewGroup;
+
+import java.util.ArrayList;
+
+/**
+ * The custom layouts a tour takes out of the screen to show them on the overlay. The layouts are borrowed when
+ * the tour starts, so a queued tour leaves them in place, and each layout is put back at its original parent,
+ * index and layout params once the tour ends.
+ */
+class BorrowedLayouts {
+    private final View[] candidates;
+    private final ArrayList<View> layouts = new ArrayList<>();
+    private final ArrayList<ViewGroup> parents = new ArrayList<>();
+    private final ArrayList<Integer> indices = new ArrayList<>();
+    private final ArrayList<ViewGroup.LayoutParams> params = new ArrayList<>();
+    // the layouts are moved on the overlay using their translation.
+    private final ArrayList<float[]> translations = new ArrayList<>();
+
+    /**
+     * Creates the borrowed layouts of a tour.
+     *
+     * @param candidates the custom layouts of the tour
+     */
+    BorrowedLayouts(View... candidates) {
+      this.candidates = candidates;
+    }
+
+    /**
+     * Removes the layouts from their parents, remembering where they were.
+     */
+    void borrow() {
+      for (View layout : candidates) {
+        if (!(layout.getParent() instanceof ViewGroup)) {
+          continue;
+        }
+        ViewGroup parent = (ViewGroup) layout.getParent();
+        layouts.add(layout);
+        parents.add(parent);
+        indices.add(parent.indexOfChild(layout));
+        params.add(layout.getLayoutParams());
+        translations.add(new float[] {layout.getTranslationX(), layout.getTranslationY()});
+        parent.removeView(layout);
+      }
+    }
+
+    /**
+     * Puts the borrowed layouts back, and drops the references to them. The layouts are put back in the reverse
+     * order they were borrowed in, so each layout's index is the same as when it was removed.
+     */
+    void restore() {
+      for (int i = layouts.size() - 1; i >= 0; i--) {
+        View layout = layouts.get(i);
+        if (layout.getParent() instanceof ViewGroup) {
+          ((ViewGroup) layout.getParent()).removeView(layout);
+        }
+        ViewGroup parent = parents.get(i);
+        int index = Math.min(indices.get(i), parent.getChildCount());
+        layout.setTranslationX(translations.get(i)[0]);
+        layout.setTranslationY(translations.get(i)[1]);
+        parent.addView(layout, index, params.get(i));
+      }
+      layouts.clear();
+      parents.clear();
+      indices.clear();
+      params.clear();
+      translations.clear();
+    }
+}
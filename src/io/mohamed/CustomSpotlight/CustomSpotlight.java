@@ -16,7 +16,10 @@ import com.google.appinventor.components.runtime.AndroidViewComponent;
 import com.google.appinventor.components.runtime.ComponentContainer;
 import com.google.appinventor.components.runtime.Component;
 import com.google.appinventor.components.runtime.EventDispatcher;
+import com.google.appinventor.components.runtime.OnDestroyListener;
+import com.google.appinventor.components.runtime.OnPauseListener;
 import com.google.appinventor.components.runtime.ReplForm;
+import com.google.appinventor.components.runtime.util.ErrorMessages;
 import com.google.appinventor.components.runtime.util.YailList;
 import com.google.appinventor.components.common.ComponentCategory;
 import com.google.appinventor.components.common.PropertyTypeConstants;
@@ -24,26 +27,27 @@ import com.google.appinventor.components.runtime.errors.YailRuntimeError;
 
 import android.app.Activity;
 import android.os.Build;
+import android.os.Looper;
+import android.os.MessageQueue;
 import android.graphics.Color;
 import android.os.Environment;
-import android.text.Html;
 import android.view.MotionEvent;
 import android.graphics.Typeface;
 import android.view.View;
 import android.view.ViewGroup;
-import android.view.ViewParent;
-import android.view.ViewTreeObserver;
 import android.view.animation.DecelerateInterpolator;
+import android.widget.TextView;
 
 import com.takusemba.spotlight.CustomTarget;
 import com.takusemba.spotlight.SimpleTarget;
-import com.takusemba.spotlight.Spotlight;
 import com.takusemba.spotlight.OnSpotlightEndedListener;
 import com.takusemba.spotlight.OnSpotlightStartedListener;
 import com.takusemba.spotlight.OnTargetClosedListener;
 import com.takusemba.spotlight.Target;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.lang.reflect.Method;
 import java.io.File;
 
@@ -56,24 +60,94 @@ import java.io.File;
       iconName = "aiwebres/icon.png")
 @UsesLibraries(libraries = "Spotlight.jar")
 @SimpleObject(external = true)
-public class CustomSpotlight extends AndroidNonvisibleComponent {
+public class CustomSpotlight extends AndroidNonvisibleComponent implements OnPauseListener, OnDestroyListener {
+    // the getView method of each non-visible component class, or null for the classes that have no view.
+    private static final HashMap<Class<?>, Method> VIEW_ACCESSORS = new HashMap<>();
+    private static String assetsPath;
     private Activity context;
     private int maskColor = Color.parseColor("#E6000000");
     private Typeface titleTypeface;
     private Typeface descriptionTypeface;
     private String titlePath = "";
     private String descriptionPath = "";
+    // the cache keys of the typefaces, kept until the typefaces are loaded.
+    private String titleTypefaceKey;
+    private String descriptionTypefaceKey;
     private int titleFontSize = 24;
     private int descriptionFontSize = 18;
     private boolean isRepl = false;
     private int titleColor = Color.WHITE;
     private int descriptionColor = Color.WHITE;
+    private boolean lazyTargets = false;
+    private boolean trackTargets = false;
+    private String spotlightShape = HoleShape.CIRCLE;
+    private int shapePadding = 16;
+    private boolean renderThreadAnimations = false;
+    private String renderingProfile = RenderingProfile.FULL;
+    private int priority = 0;
+    private TextCache.Style titleStyle;
+    private TextCache.Style descriptionStyle;
+    private final SpotlightSession session;
+    private StartupTrace startupTrace;
+    private YailList lastStartupBreakdown = YailList.makeEmptyList();
+    private boolean measurePerformance = false;
+    private FrameStats frameStats;
+    private YailList lastTourStats = YailList.makeEmptyList();
+    private boolean deferEvents = false;
+    private final DeferredEvents deferredEvents = new DeferredEvents(this);
+    private boolean autoWarmUp = false;
+    private boolean warmUpScheduled = false;
+    private boolean warmedUp = false;
+    private final MessageQueue.IdleHandler warmUpHandler = new MessageQueue.IdleHandler() {
+      @Override
+      public boolean queueIdle() {
+        if (context.getWindow().getDecorView().getWidth() == 0) {
+          // the form isn't shown yet.
+          return true;
+        }
+        warmUpScheduled = false;
+        warmUp();
+        return false;
+      }
+    };
 
     public CustomSpotlight(ComponentContainer container) {
       super(container.$form());
 
       context = container.$context();
       isRepl = container.$form() instanceof ReplForm;
+      session = new SpotlightSession(context);
+      form.registerForOnPause(this);
+      form.registerForOnDestroy(this);
+    }
+
+    /**
+     * Ends the active spotlight at once when the screen is paused, the queued spotlights are dropped, and the
+     * borrowed custom layouts are put back.
+     */
+    @Override
+    public void onPause() {
+      session.close();
+    }
+
+    /**
+     * Ends the active spotlight, and drops the overlay and every reference to the screen's views.
+     */
+    @Override
+    public void onDestroy() {
+      if (warmUpScheduled) {
+        Looper.myQueue().removeIdleHandler(warmUpHandler);
+        warmUpScheduled = false;
+      }
+      session.destroy();
+      // the Ended event of the active spotlight is still dispatched, once.
+      deferredEvents.flush();
+      if (startupTrace != null) {
+        startupTrace.cancel();
+      }
+      if (frameStats != null) {
+        frameStats.stop();
+      }
     }
 
     /**
@@ -81,7 +155,7 @@ public class CustomSpotlight extends AndroidNonvisibleComponent {
      */
     @SimpleFunction(description = "Dismisses The currently shown target.")
     public void DismissTarget() {
-      Spotlight.finishTarget();
+      session.dismissTarget();
     }
 
     /**
@@ -89,7 +163,27 @@ public class CustomSpotlight extends AndroidNonvisibleComponent {
      */
     @SimpleFunction(description = "Dimisses the whole currently shown spotlight.")
     public void DismissSpotlight() {
-      Spotlight.finishSpotlight();
+      session.dismissSpotlight();
+    }
+
+    /**
+     * Drops the spotlights waiting to be shown, the spotlight that is shown isn't affected.
+     */
+    @SimpleFunction(description = "Drops the spotlights waiting to be shown, the spotlight that is currently shown "
+      + "isn't affected.")
+    public void ClearQueue() {
+      session.clearQueue();
+    }
+
+    /**
+     * Does the work the first spotlight would otherwise do, the next time the UI thread is idle after the screen
+     * is shown.
+     */
+    @SimpleFunction(description = "Prepares the spotlight views, layers and text rendering the next time the app "
+      + "is idle after the screen is shown, so the first spotlight starts as fast as the later ones. Does nothing "
+      + "once a spotlight was shown.")
+    public void WarmUp() {
+      scheduleWarmUp();
     }
 
     /**
@@ -104,23 +198,122 @@ public class CustomSpotlight extends AndroidNonvisibleComponent {
      */
     @SimpleFunction(description = "Shows a spotlight on the given component.")
     public void ShowSpotlight(Object component, String title, String description, long duration, float radius, final String id) {
+      beginStartup();
+      try {
+        View view = getView(component);
+        if (view == null) {
+          Error("Couldn't get the view of the given component.");
+          return;
+        }
+        try {
+          Target target = track(TargetBuilders.build(newTargetBuilder(title, description)
+            .setPoint(view) // position of the Target.
+            .setRadius(holeRadius(view, radius))), // radius of the Target
+            view, TargetVisibility.check(new View[] {view})[0]);
+          SpotlightTour tour = new SpotlightTour()
+            .setDuration(duration) // duration of Spotlight emerging and disappearing in ms
+            .setAnimation(new DecelerateInterpolator(2f)) // animation of Spotlight
+            .setTargets(target)
+            .setMaskColor(maskColor)
+            .setOnSpotlightStartedListener(new OnSpotlightStartedListener() { // callback when Spotlight starts
+              @Override
+              public void onStarted() {
+                  Started(id);
+              }
+            })
+            .setOnSpotlightEndedListener(new OnSpotlightEndedListener() { // callback when Spotlight ends
+              @Override
+              public void onEnded() {
+                  Ended(id);
+              }
+            })
+            .setOnTargetClosedListener(new OnTargetClosedListener() {
+              @Override
+              public void onTargetClosed(Target target) {
+                TargetClosed(id);
+              }
+            });
+          startTour(tour, id);
+          } catch (Exception e) {
+            Error(e.toString());
+          } 
+      } finally {
+        failStartup();
+      }
+    }
+    
+    /**
+     * Shows multiple spotlights on the components given.
+     * 
+     * @param components a list of components to show the spotlights on
+     * @param titles a list of the spotlights' titles, supports HTML text
+     * @param descriptions a list of the spotlights' descriptions, supports HTML text
+     * @param duration the duration that the spotlight show take to show or hide, in melliseconds
+     * @param radii a list of the spotlights' circles radii
+     * @param targetIds the ids of the targerts, used when calling TargetClosed event
+     * @param id a unique id for the spotlight, used when calling the Started and Ended events
+     */
+    @SimpleFunction(description = "Shows multiple spotlights on the components given.")
+    public void ShowMultipleSpotlights(YailList components, YailList titles, YailList descriptions, long duration, YailList radii, YailList targetIds, final String id) {
+      beginStartup();
       try {
-        SimpleTarget target = new SimpleTarget.Builder(context)
-          .setPoint(getView(component)) // position of the Target.
-          .setRadius(radius) // radius of the Target
-          .setTitle(Html.fromHtml(title)) // title
-          .setDescription(Html.fromHtml(description)) // description
-          .setTitleTypeFace(titleTypeface)
-          .setDescriptionTypeFace(descriptionTypeface)
-          .setTitleFontSize(titleFontSize)
-          .setDescriptionFontSize(descriptionFontSize)
-          .setTitleColor(titleColor)
-          .setDescriptionColor(descriptionColor)
-          .build();
-        Spotlight.with(context)
+        Object[] componentsArr = components.toArray();
+        String[] titlesArr;
+        String[] descriptionsArr;
+        float[] radiiArr;
+        String[] targetIdsArr;
+        try {
+          titlesArr = ListParser.parseStrings(titles.toArray());
+          descriptionsArr = ListParser.parseStrings(descriptions.toArray());
+          radiiArr = ListParser.parseRadii(radii.toArray());
+          targetIdsArr = ListParser.parseStrings(targetIds.toArray());
+          ListParser.checkLengths(new String[] {"components", "titles", "descriptions", "radii", "targetIds"},
+            componentsArr.length, titlesArr.length, descriptionsArr.length, radiiArr.length, targetIdsArr.length);
+        } catch (IllegalArgumentException e) {
+          Error(e.getMessage());
+          return;
+        }
+        View[] views = getViews(componentsArr);
+        TargetVisibility[] visibilities = TargetVisibility.check(views);
+        final ArrayList<Target> targets = new ArrayList<>();
+        IdentityHashMap<Target, String> idsByTarget = new IdentityHashMap<>();
+        LazyTarget previous = null;
+        for (int i = 0; i < views.length; i++) {
+          if (views[i] == null) {
+            continue;
+          }
+          if (!visibilities[i].isVisible()) {
+            TargetSkipped(targetIdsArr[i]);
+            continue;
+          }
+          try {
+            Target target;
+            if (lazyTargets) {
+              LazyTarget lazyTarget = newLazyTarget(views[i], titlesArr[i], descriptionsArr[i], 
+                holeRadius(views[i], radiiArr[i]));
+              precomputeTexts(titlesArr[i], descriptionsArr[i]);
+              if (previous != null) {
+                previous.setNext(lazyTarget);
+              }
+              previous = lazyTarget;
+              target = lazyTarget;
+            } else {
+              target = TargetBuilders.build(newTargetBuilder(titlesArr[i], descriptionsArr[i])
+                .setPoint(views[i]) // position of the Target. setPoint(Point point), setPoint(View view) will work too.
+                .setRadius(holeRadius(views[i], radiiArr[i]))); // radius of the Target
+            }
+            target = track(target, views[i], visibilities[i]);
+            targets.add(target);
+            idsByTarget.put(target, targetIdsArr[i]);
+          } catch (Exception e) {
+            Error(e.toString());
+            continue;
+          }
+        }
+        SpotlightTour tour = new SpotlightTour()
           .setDuration(duration) // duration of Spotlight emerging and disappearing in ms
           .setAnimation(new DecelerateInterpolator(2f)) // animation of Spotlight
-          .setTargets(target)
+          .setTargets(targets.toArray(new Target[targets.size()]))
           .setMaskColor(maskColor)
           .setOnSpotlightStartedListener(new OnSpotlightStartedListener() { // callback when Spotlight starts
             @Override
@@ -131,84 +324,117 @@ public class CustomSpotlight extends AndroidNonvisibleComponent {
           .setOnSpotlightEndedListener(new OnSpotlightEndedListener() { // callback when Spotlight ends
             @Override
             public void onEnded() {
+                releaseTargets(targets);
                 Ended(id);
             }
           })
-          .setOnTargetClosedListener(new OnTargetClosedListener() {
-            @Override
-            public void onTargetClosed(Target target) {
-              TargetClosed(id);
-            }
-          })
-          .start();
-        } catch (Exception e) {
-          Error(e.toString());
-        } 
+          .setOnTargetClosedListener(newTargetClosedListener(idsByTarget));
+        startTour(tour, id);
+      } finally {
+        failStartup();
+      }
     }
-    
+
     /**
-     * Shows multiple spotlights on the components given.
+     * Shows a single spotlight that highlights all the given components at once, with one title and description
+     * for the whole group.
      * 
-     * @param components a list of components to show the spotlights on
-     * @param titles a list of the spotlights' titles, supports HTML text
-     * @param descriptions a list of the spotlights' descriptions, supports HTML text
+     * @param components a list of components to highlight together
+     * @param radii a list of the circle radius of each component
+     * @param title the spotlight title, can be an html text
+     * @param description the spotlight description, can be an html text
      * @param duration the duration that the spotlight show take to show or hide, in melliseconds
-     * @param radii a list of the spotlights' circles radii
-     * @param targetIds the ids of the targerts, used when calling TargetClosed event
-     * @param id a unique id for the spotlight, used when calling the Started and Ended events
+     * @param id a unique id for the spotlight, used when calling the Started, TargetClosed and Ended events
      */
-    @SimpleFunction(description = "Shows multiple spotlights on the components given.")
-    public void ShowMultipleSpotlights(YailList components, YailList titles, YailList descriptions, long duration, YailList radii, YailList targetIds, final String id) {
-      Object[] componentsArr = components.toArray();
-      Object[] titlesArr = titles.toArray();
-      Object[] descriptionsArr = descriptions.toArray();
-      Object[] radiiArr = radii.toArray();
-      final Object[] targetIdsArr = targetIds.toArray();
-      final ArrayList<SimpleTarget> targets = new ArrayList<>();
-      for (int i = 0; i < componentsArr.length; i++) {
+    @SimpleFunction(description = "Shows a single spotlight that highlights all the given components at once, "
+      + "with one title and description for the whole group.")
+    public void ShowGroupSpotlight(YailList components, YailList radii, String title, String description, long duration, final String id) {
+      beginStartup();
+      try {
+        Object[] componentsArr = components.toArray();
+        float[] radiiArr;
+        try {
+          radiiArr = ListParser.parseRadii(radii.toArray());
+          ListParser.checkLengths(new String[] {"components", "radii"}, componentsArr.length, radiiArr.length);
+        } catch (IllegalArgumentException e) {
+          Error(e.getMessage());
+          return;
+        }
+        View[] views = getViews(componentsArr);
+        TargetVisibility[] visibilities = TargetVisibility.check(views);
+        float[] holes = new float[views.length * 3];
+        View[] shownViews = new View[views.length];
+        int holeCount = 0;
+        float left = Float.MAX_VALUE;
+        float top = Float.MAX_VALUE;
+        float right = -Float.MAX_VALUE;
+        float bottom = -Float.MAX_VALUE;
+        int[] location = new int[2];
+        for (int i = 0; i < views.length; i++) {
+          if (views[i] == null || !visibilities[i].isVisible()) {
+            continue;
+          }
+          // the same center the target builder uses for a component.
+          views[i].getLocationInWindow(location);
+          float x = location[0] + views[i].getWidth() / 2f;
+          float y = location[1] + views[i].getHeight() / 2f;
+          holes[holeCount * 3] = x;
+          holes[holeCount * 3 + 1] = y;
+          holes[holeCount * 3 + 2] = radiiArr[i];
+          shownViews[holeCount] = views[i];
+          holeCount++;
+          left = Math.min(left, x - radiiArr[i]);
+          top = Math.min(top, y - radiiArr[i]);
+          right = Math.max(right, x + radiiArr[i]);
+          bottom = Math.max(bottom, y + radiiArr[i]);
+        }
+        if (holeCount == 0) {
+          Error("None of the given components is visible to show the spotlight on.");
+          return;
+        }
+        if (holeCount < views.length) {
+          float[] shown = new float[holeCount * 3];
+          System.arraycopy(holes, 0, shown, 0, shown.length);
+          holes = shown;
+          View[] shownComponents = new View[holeCount];
+          System.arraycopy(shownViews, 0, shownComponents, 0, holeCount);
+          shownViews = shownComponents;
+        }
         try {
-          SimpleTarget target = new SimpleTarget.Builder(context)
-            .setPoint(getView(componentsArr[i])) // position of the Target. setPoint(Point point), setPoint(View view) will work too.
-            .setRadius(Float.parseFloat(radiiArr[i].toString())) // radius of the Target
-            .setTitle(Html.fromHtml(titlesArr[i].toString())) // title
-            .setDescription(Html.fromHtml(descriptionsArr[i].toString())) // description
-            .setTitleTypeFace(titleTypeface)
-            .setDescriptionTypeFace(descriptionTypeface)
-            .setTitleFontSize(titleFontSize)
-            .setDescriptionFontSize(descriptionFontSize)
-            .setTitleColor(titleColor)
-            .setDescriptionColor(descriptionColor)
-            .build();
-          targets.add(target);
+          // the text is placed above or below the bounds of the whole group.
+          SimpleTarget textTarget = TargetBuilders.build(newTargetBuilder(title, description)
+            .setPoint((left + right) / 2, (top + bottom) / 2)
+            .setRadius((bottom - top) / 2));
+          SpotlightTour tour = new SpotlightTour()
+            .setDuration(duration) // duration of Spotlight emerging and disappearing in ms
+            .setAnimation(new DecelerateInterpolator(2f)) // animation of Spotlight
+            .setTargets(new GroupTarget(textTarget, shownViews, holes))
+            .setMaskColor(maskColor)
+            .setOnSpotlightStartedListener(new OnSpotlightStartedListener() { // callback when Spotlight starts
+              @Override
+              public void onStarted() {
+                  Started(id);
+              }
+            })
+            .setOnSpotlightEndedListener(new OnSpotlightEndedListener() { // callback when Spotlight ends
+              @Override
+              public void onEnded() {
+                  Ended(id);
+              }
+            })
+            .setOnTargetClosedListener(new OnTargetClosedListener() {
+              @Override
+              public void onTargetClosed(Target target) {
+                TargetClosed(id);
+              }
+            });
+          startTour(tour, id);
         } catch (Exception e) {
           Error(e.toString());
-          continue;
         }
+      } finally {
+        failStartup();
       }
-      Spotlight.with(context)
-        .setDuration(duration) // duration of Spotlight emerging and disappearing in ms
-        .setAnimation(new DecelerateInterpolator(2f)) // animation of Spotlight
-        .setTargets(targets.toArray(new SimpleTarget[targets.size()]))
-        .setMaskColor(maskColor)
-        .setOnSpotlightStartedListener(new OnSpotlightStartedListener() { // callback when Spotlight starts
-          @Override
-          public void onStarted() {
-              Started(id);
-          }
-        })
-        .setOnSpotlightEndedListener(new OnSpotlightEndedListener() { // callback when Spotlight ends
-          @Override
-          public void onEnded() {
-              Ended(id);
-          }
-        })
-        .setOnTargetClosedListener(new OnTargetClosedListener() {
-          @Override
-          public void onTargetClosed(Target target) {
-            TargetClosed(targetIdsArr[targets.indexOf(target)].toString());
-          }
-        })
-        .start();
     }
 
     /**
@@ -224,46 +450,42 @@ public class CustomSpotlight extends AndroidNonvisibleComponent {
      */
     @SimpleFunction(description = "Shows a spotlight at a specific coordinate.")
     public void ShowSpotlightAtPoint(float x, float y, String title, String description, long duration, float radius, final String id) {
+      beginStartup();
       try {
-        SimpleTarget target = new SimpleTarget.Builder(context)
-          .setPoint(x, y) // position of the Target.
-          .setRadius(radius) // radius of the Target
-          .setTitle(Html.fromHtml(title)) // title
-          .setDescription(Html.fromHtml(description)) // description
-          .setTitleTypeFace(titleTypeface)
-          .setDescriptionTypeFace(descriptionTypeface)
-          .setTitleFontSize(titleFontSize)
-          .setDescriptionFontSize(descriptionFontSize)
-          .setTitleColor(titleColor)
-          .setDescriptionColor(descriptionColor)
-          .build();
-        Spotlight.with(context)
-          .setDuration(duration) // duration of Spotlight emerging and disappearing in ms
-          .setAnimation(new DecelerateInterpolator(2f)) // animation of Spotlight
-          .setTargets(target)
-          .setMaskColor(maskColor)
-          .setOnSpotlightStartedListener(new OnSpotlightStartedListener() { // callback when Spotlight starts
-            @Override
-            public void onStarted() {
-                Started(id);
-            }
-          })
-          .setOnSpotlightEndedListener(new OnSpotlightEndedListener() { // callback when Spotlight ends
-            @Override
-            public void onEnded() {
-                Ended(id);
-            }
-          })
-          .setOnTargetClosedListener(new OnTargetClosedListener() {
-            @Override
-            public void onTargetClosed(Target target) {
-              TargetClosed(id);
-            }
-          })
-          .start();
-        } catch (Exception e) {
-          Error(e.toString());
-        } 
+        try {
+          SimpleTarget target = TargetBuilders.build(newTargetBuilder(title, description)
+            .setPoint(x, y) // position of the Target.
+            .setRadius(radius)); // radius of the Target
+          SpotlightTour tour = new SpotlightTour()
+            .setDuration(duration) // duration of Spotlight emerging and disappearing in ms
+            .setAnimation(new DecelerateInterpolator(2f)) // animation of Spotlight
+            .setTargets(target)
+            .setMaskColor(maskColor)
+            .setOnSpotlightStartedListener(new OnSpotlightStartedListener() { // callback when Spotlight starts
+              @Override
+              public void onStarted() {
+                  Started(id);
+              }
+            })
+            .setOnSpotlightEndedListener(new OnSpotlightEndedListener() { // callback when Spotlight ends
+              @Override
+              public void onEnded() {
+                  Ended(id);
+              }
+            })
+            .setOnTargetClosedListener(new OnTargetClosedListener() {
+              @Override
+              public void onTargetClosed(Target target) {
+                TargetClosed(id);
+              }
+            });
+          startTour(tour, id);
+          } catch (Exception e) {
+            Error(e.toString());
+          } 
+      } finally {
+        failStartup();
+      }
     }
 
     /**
@@ -280,57 +502,76 @@ public class CustomSpotlight extends AndroidNonvisibleComponent {
      */
     @SimpleFunction(description = "Shows multiple spotlights on a specific coordinates.")
     public void ShowMultipleSpotlightsAtPositions(YailList xPositions, YailList yPositions, YailList titles, YailList descriptions, long duration, YailList radii, YailList targetIds, final String id) {
-      Object[] xArr = xPositions.toArray();
-      Object[] yArr = yPositions.toArray();
-      Object[] titlesArr = titles.toArray();
-      Object[] descriptionsArr = descriptions.toArray();
-      Object[] radiiArr = radii.toArray();
-      final Object[] targetIdsArr = targetIds.toArray();
-      final ArrayList<SimpleTarget> targets = new ArrayList<>();
-      for (int i = 0; i < xArr.length; i++) {
+      beginStartup();
+      try {
+        float[] xArr;
+        float[] yArr;
+        String[] titlesArr;
+        String[] descriptionsArr;
+        float[] radiiArr;
+        String[] targetIdsArr;
         try {
-          SimpleTarget target = new SimpleTarget.Builder(context)
-            .setPoint(Float.parseFloat(xArr[i].toString()), Float.parseFloat(yArr[i].toString())) // position of the Target. setPoint(Point point), setPoint(View view) will work too.
-            .setRadius(Float.parseFloat(radiiArr[i].toString())) // radius of the Target
-            .setTitle(Html.fromHtml(titlesArr[i].toString())) // title
-            .setDescription(Html.fromHtml(descriptionsArr[i].toString())) // description
-            .setTitleTypeFace(titleTypeface)
-            .setDescriptionTypeFace(descriptionTypeface)
-            .setTitleFontSize(titleFontSize)
-            .setDescriptionFontSize(descriptionFontSize)
-            .setTitleColor(titleColor)
-            .setDescriptionColor(descriptionColor)
-            .build();
-          targets.add(target);
-        } catch (Exception e) {
-          Error(e.toString());
-          continue;
+          xArr = ListParser.parseFloats("xPositions", xPositions.toArray());
+          yArr = ListParser.parseFloats("yPositions", yPositions.toArray());
+          titlesArr = ListParser.parseStrings(titles.toArray());
+          descriptionsArr = ListParser.parseStrings(descriptions.toArray());
+          radiiArr = ListParser.parseRadii(radii.toArray());
+          targetIdsArr = ListParser.parseStrings(targetIds.toArray());
+          ListParser.checkLengths(new String[] {"xPositions", "yPositions", "titles", "descriptions", "radii", "targetIds"},
+            xArr.length, yArr.length, titlesArr.length, descriptionsArr.length, radiiArr.length, targetIdsArr.length);
+        } catch (IllegalArgumentException e) {
+          Error(e.getMessage());
+          return;
         }
-      }
-      Spotlight.with(context)
-        .setDuration(duration) // duration of Spotlight emerging and disappearing in ms
-        .setAnimation(new DecelerateInterpolator(2f)) // animation of Spotlight
-        .setTargets(targets.toArray(new SimpleTarget[targets.size()]))
-        .setMaskColor(maskColor)
-        .setOnSpotlightStartedListener(new OnSpotlightStartedListener() { // callback when Spotlight starts
-          @Override
-          public void onStarted() {
-              Started(id);
-          }
-        })
-        .setOnSpotlightEndedListener(new OnSpotlightEndedListener() { // callback when Spotlight ends
-          @Override
-          public void onEnded() {
-              Ended(id);
-          }
-        })
-        .setOnTargetClosedListener(new OnTargetClosedListener() {
-          @Override
-          public void onTargetClosed(Target target) {
-            TargetClosed(targetIdsArr[targets.indexOf(target)].toString());
+        final ArrayList<Target> targets = new ArrayList<>();
+        IdentityHashMap<Target, String> idsByTarget = new IdentityHashMap<>();
+        LazyTarget previous = null;
+        for (int i = 0; i < xArr.length; i++) {
+          try {
+            Target target;
+            if (lazyTargets) {
+              LazyTarget lazyTarget = newLazyTarget(xArr[i], yArr[i], titlesArr[i], descriptionsArr[i], radiiArr[i]);
+              precomputeTexts(titlesArr[i], descriptionsArr[i]);
+              if (previous != null) {
+                previous.setNext(lazyTarget);
+              }
+              previous = lazyTarget;
+              target = lazyTarget;
+            } else {
+              target = TargetBuilders.build(newTargetBuilder(titlesArr[i], descriptionsArr[i])
+                .setPoint(xArr[i], yArr[i]) // position of the Target. setPoint(Point point), setPoint(View view) will work too.
+                .setRadius(radiiArr[i])); // radius of the Target
+            }
+            targets.add(target);
+            idsByTarget.put(target, targetIdsArr[i]);
+          } catch (Exception e) {
+            Error(e.toString());
+            continue;
           }
-        })
-        .start();
+        }
+        SpotlightTour tour = new SpotlightTour()
+          .setDuration(duration) // duration of Spotlight emerging and disappearing in ms
+          .setAnimation(new DecelerateInterpolator(2f)) // animation of Spotlight
+          .setTargets(targets.toArray(new Target[targets.size()]))
+          .setMaskColor(maskColor)
+          .setOnSpotlightStartedListener(new OnSpotlightStartedListener() { // callback when Spotlight starts
+            @Override
+            public void onStarted() {
+                Started(id);
+            }
+          })
+          .setOnSpotlightEndedListener(new OnSpotlightEndedListener() { // callback when Spotlight ends
+            @Override
+            public void onEnded() {
+                releaseTargets(targets);
+                Ended(id);
+            }
+          })
+          .setOnTargetClosedListener(newTargetClosedListener(idsByTarget));
+        startTour(tour, id);
+      } finally {
+        failStartup();
+      }
     }
     
     /**
@@ -346,53 +587,55 @@ public class CustomSpotlight extends AndroidNonvisibleComponent {
      */
     @SimpleFunction(description = "Shows a spotlight using a custom layout.")
     public void ShowCustomSpotlight(Object component, long duration, float radius, final AndroidViewComponent spotlightLayout, final float layoutY, final float layoutX, final String id) {
+      beginStartup();
       try {
-        View view = spotlightLayout.getView();
-        ViewParent parent = view.getParent();
-        if (parent != null) {
-          ((ViewGroup) parent).removeView(view);
-        }
-        CustomTarget target = new CustomTarget.Builder(context)
-          .setPoint(getView(component)) // position of the Target.
-          .setRadius(radius)
-          .setView(spotlightLayout.getView())
-          .build();
-        Spotlight.with(context)
-          .setDuration(duration) // duration of Spotlight emerging and disappearing in ms
-          .setAnimation(new DecelerateInterpolator(2f)) // animation of Spotlight
-          .setTargets(target)
-          .setOnSpotlightStartedListener(new OnSpotlightStartedListener() { // callback when Spotlight starts
-            @Override
-            public void onStarted() {
-                Started(id);
-            }
-          })
-          .setOnSpotlightEndedListener(new OnSpotlightEndedListener() { // callback when Spotlight ends
-            @Override
-            public void onEnded() {
-                Ended(id);
-            }
-          })
-          .setOnTargetClosedListener(new OnTargetClosedListener() {
-            @Override
-            public void onTargetClosed(Target target) {
-              TargetClosed(id);
-            }
-          })
-          .setMaskColor(maskColor)
-          .start();
-        // change the given layout postion, when the spotlight view is drawn.
-        Spotlight.getSpotlightView().getViewTreeObserver()
-        .addOnGlobalLayoutListener(new ViewTreeObserver.OnGlobalLayoutListener() {
-            @Override
-            public void onGlobalLayout() {
-              spotlightLayout.getView().setY(layoutY);
-              spotlightLayout.getView().setX(layoutX);
-            }
-          });
-        } catch (Exception e) {
-          Error(e.toString());
+        View componentView = getView(component);
+        if (componentView == null) {
+          Error("Couldn't get the view of the given component.");
+          return;
         }
+        try {
+          View view = spotlightLayout.getView();
+          final BorrowedLayouts borrowed = new BorrowedLayouts(view);
+          CustomTarget target = TargetBuilders.build(new CustomTarget.Builder(context)
+            .setPoint(componentView) // position of the Target.
+            .setRadius(radius)
+            .setView(view));
+          final LayoutPositioner positioner = new LayoutPositioner(new Target[] {target}, new View[] {view}, 
+            new float[] {layoutX}, new float[] {layoutY});
+          SpotlightTour tour = new SpotlightTour()
+            .setDuration(duration) // duration of Spotlight emerging and disappearing in ms
+            .setAnimation(new DecelerateInterpolator(2f)) // animation of Spotlight
+            .setTargets(target)
+            .setLayoutPositioner(positioner)
+            .setOnSpotlightStartedListener(new OnSpotlightStartedListener() { // callback when Spotlight starts
+              @Override
+              public void onStarted() {
+                  borrowed.borrow();
+                  Started(id);
+              }
+            })
+            .setOnSpotlightEndedListener(new OnSpotlightEndedListener() { // callback when Spotlight ends
+              @Override
+              public void onEnded() {
+                  borrowed.restore();
+                  Ended(id);
+              }
+            })
+            .setOnTargetClosedListener(new OnTargetClosedListener() {
+              @Override
+              public void onTargetClosed(Target target) {
+                TargetClosed(id);
+              }
+            })
+            .setMaskColor(maskColor);
+          startTour(tour, id);
+          } catch (Exception e) {
+            Error(e.toString());
+          }
+      } finally {
+        failStartup();
+      }
     }
 
     /**
@@ -409,52 +652,50 @@ public class CustomSpotlight extends AndroidNonvisibleComponent {
      */
     @SimpleFunction(description = "Shows a spotlight at a specific coordinate using a custom layout.")
     public void ShowCustomSpotlightAtPoint(float x, float y, long duration, float radius, final AndroidViewComponent spotlightLayout, final float layoutY, final float layoutX, final String id) {
+      beginStartup();
       try {
-        View view = spotlightLayout.getView();
-        ViewParent parent = view.getParent();
-        if (parent != null) {
-          ((ViewGroup) parent).removeView(view);
-        }
-        CustomTarget target = new CustomTarget.Builder(context)
-          .setPoint(x, y) // position of the Target. setPoint(Point point), setPoint(View view) will work too.
-          .setRadius(radius)
-          .setView(spotlightLayout.getView())
-          .build();
-        Spotlight.with(context)
-          .setDuration(duration) // duration of Spotlight emerging and disappearing in ms
-          .setAnimation(new DecelerateInterpolator(2f)) // animation of Spotlight
-          .setTargets(target)
-          .setOnSpotlightStartedListener(new OnSpotlightStartedListener() { // callback when Spotlight starts
-            @Override
-            public void onStarted() {
-                Started(id);
-            }
-          })
-          .setOnSpotlightEndedListener(new OnSpotlightEndedListener() { // callback when Spotlight ends
-            @Override
-            public void onEnded() {
-                Ended(id);
-            }
-          })
-          .setOnTargetClosedListener(new OnTargetClosedListener() {
-            @Override
-            public void onTargetClosed(Target target) {
-              TargetClosed(id);
-            }
-          })
-          .setMaskColor(maskColor)
-          .start();
-        Spotlight.getSpotlightView().getViewTreeObserver()
-        .addOnGlobalLayoutListener(new ViewTreeObserver.OnGlobalLayoutListener() {
-            @Override
-            public void onGlobalLayout() {
-              spotlightLayout.getView().setY(layoutY);
-              spotlightLayout.getView().setX(layoutX);
-            }
-          });
-        } catch (Exception e) {
-          Error(e.toString());
-        }
+        try {
+          View view = spotlightLayout.getView();
+          final BorrowedLayouts borrowed = new BorrowedLayouts(view);
+          CustomTarget target = TargetBuilders.build(new CustomTarget.Builder(context)
+            .setPoint(x, y) // position of the Target. setPoint(Point point), setPoint(View view) will work too.
+            .setRadius(radius)
+            .setView(view));
+          final LayoutPositioner positioner = new LayoutPositioner(new Target[] {target}, new View[] {view}, 
+            new float[] {layoutX}, new float[] {layoutY});
+          SpotlightTour tour = new SpotlightTour()
+            .setDuration(duration) // duration of Spotlight emerging and disappearing in ms
+            .setAnimation(new DecelerateInterpolator(2f)) // animation of Spotlight
+            .setTargets(target)
+            .setLayoutPositioner(positioner)
+            .setOnSpotlightStartedListener(new OnSpotlightStartedListener() { // callback when Spotlight starts
+              @Override
+              public void onStarted() {
+                  borrowed.borrow();
+                  Started(id);
+              }
+            })
+            .setOnSpotlightEndedListener(new OnSpotlightEndedListener() { // callback when Spotlight ends
+              @Override
+              public void onEnded() {
+                  borrowed.restore();
+                  Ended(id);
+              }
+            })
+            .setOnTargetClosedListener(new OnTargetClosedListener() {
+              @Override
+              public void onTargetClosed(Target target) {
+                TargetClosed(id);
+              }
+            })
+            .setMaskColor(maskColor);
+          startTour(tour, id);
+          } catch (Exception e) {
+            Error(e.toString());
+          }
+      } finally {
+        failStartup();
+      }
     }
 
     /**
@@ -472,57 +713,79 @@ public class CustomSpotlight extends AndroidNonvisibleComponent {
     @SimpleFunction(description = "Shows multiple spotlight using a custom layout.")
     public void ShowMultipleCustomSpotlights(YailList components, long duration, YailList radii, 
       final YailList spotlightLayouts, final YailList layoutYPositions, final YailList layoutXPositions, final String id, YailList targetIds) {
-      
-      Object[] componentsArr = components.toArray();
-      final Object[] spotlightLayoutsArr = spotlightLayouts.toArray();
-      Object[] radiiArr = radii.toArray();
-      final Object[] layoutXPosArr = layoutXPositions.toArray();
-      final Object[] layoutYPosArr = layoutYPositions.toArray();
-      final Object[] targetIdsArr = targetIds.toArray();
-      final ArrayList<CustomTarget> targets = new ArrayList<>();
-      for (int i = 0; i < componentsArr.length; i++) {
-        if (getView(spotlightLayoutsArr[i]).getParent() != null) {
-          ((ViewGroup) getView(spotlightLayoutsArr[i]).getParent()).removeView(getView(spotlightLayoutsArr[i]));
-        }
-        CustomTarget target = new CustomTarget.Builder(context)
-          .setPoint(getView(componentsArr[i])) // position of the Target. setPoint(Point point), setPoint(View view) will work too.
-          .setRadius(Float.parseFloat(radiiArr[i].toString()))
-          .setView(getView(spotlightLayoutsArr[i]))
-          .build();
-          targets.add(target);
+      beginStartup();
+      try {
+        Object[] componentsArr = components.toArray();
+        Object[] layoutsArr = spotlightLayouts.toArray();
+        float[] radiiArr;
+        String[] targetIdsArr;
+        float[] layoutXPosArr;
+        float[] layoutYPosArr;
+        try {
+          radiiArr = ListParser.parseRadii(radii.toArray());
+          targetIdsArr = ListParser.parseStrings(targetIds.toArray());
+          layoutXPosArr = ListParser.parseFloats("layoutXPositions", layoutXPositions.toArray());
+          layoutYPosArr = ListParser.parseFloats("layoutYPositions", layoutYPositions.toArray());
+          ListParser.checkLengths(new String[] {"components", "spotlightLayouts", "radii", "layoutYPositions",
+            "layoutXPositions", "targetIds"}, componentsArr.length, layoutsArr.length, radiiArr.length,
+            layoutYPosArr.length, layoutXPosArr.length, targetIdsArr.length);
+        } catch (IllegalArgumentException e) {
+          Error(e.getMessage());
+          return;
         }
-        Spotlight.with(context)
-          .setDuration(duration) // duration of Spotlight emerging and disappearing in ms
-          .setAnimation(new DecelerateInterpolator(2f)) // animation of Spotlight
-          .setTargets(targets.toArray(new SimpleTarget[targets.size()]))
-          .setOnSpotlightStartedListener(new OnSpotlightStartedListener() { // callback when Spotlight starts
-            @Override
-            public void onStarted() {
-                Started(id);
-            }
-          })
-          .setOnSpotlightEndedListener(new OnSpotlightEndedListener() { // callback when Spotlight ends
-            @Override
-            public void onEnded() {
-                Ended(id);
-            }
-          })
-          .setOnTargetClosedListener(new OnTargetClosedListener() {
-            @Override
-            public void onTargetClosed(Target target) {
-              TargetClosed(targetIdsArr[targets.indexOf(target)].toString());
-            }
-          })
-          .setMaskColor(maskColor)
-          .start();
-        Spotlight.getSpotlightView().getViewTreeObserver()
-        .addOnGlobalLayoutListener(new ViewTreeObserver.OnGlobalLayoutListener() {
-            @Override
-            public void onGlobalLayout() {
-              getView(spotlightLayoutsArr[targets.indexOf(Spotlight.getCurrentTarget())]).setY(Float.parseFloat(layoutYPosArr[targets.indexOf(Spotlight.getCurrentTarget())].toString()));
-              getView(spotlightLayoutsArr[targets.indexOf(Spotlight.getCurrentTarget())]).setX(Float.parseFloat(layoutXPosArr[targets.indexOf(Spotlight.getCurrentTarget())].toString()));
-            }
-          });
+        View[] views = getViews(componentsArr);
+        View[] layouts = getViews(layoutsArr);
+        TargetVisibility[] visibilities = TargetVisibility.check(views);
+        ArrayList<CustomTarget> targets = new ArrayList<>();
+        ArrayList<View> shownLayouts = new ArrayList<>();
+        IdentityHashMap<Target, String> idsByTarget = new IdentityHashMap<>();
+        // the target of each layout, or null for the skipped ones.
+        Target[] layoutTargets = new Target[layouts.length];
+        for (int i = 0; i < views.length; i++) {
+          if (views[i] == null || layouts[i] == null) {
+            continue;
+          }
+          if (!visibilities[i].isVisible()) {
+            TargetSkipped(targetIdsArr[i]);
+            continue;
+          }
+          CustomTarget target = TargetBuilders.build(new CustomTarget.Builder(context)
+            .setPoint(views[i]) // position of the Target. setPoint(Point point), setPoint(View view) will work too.
+            .setRadius(radiiArr[i])
+            .setView(layouts[i]));
+            targets.add(target);
+            layoutTargets[i] = target;
+            shownLayouts.add(layouts[i]);
+            idsByTarget.put(target, targetIdsArr[i]);
+          }
+          Target[] targetsArr = targets.toArray(new Target[targets.size()]);
+          final BorrowedLayouts borrowed = new BorrowedLayouts(shownLayouts.toArray(new View[shownLayouts.size()]));
+          final LayoutPositioner positioner = new LayoutPositioner(layoutTargets, layouts, layoutXPosArr, layoutYPosArr);
+          SpotlightTour tour = new SpotlightTour()
+            .setDuration(duration) // duration of Spotlight emerging and disappearing in ms
+            .setAnimation(new DecelerateInterpolator(2f)) // animation of Spotlight
+            .setTargets(targetsArr)
+            .setLayoutPositioner(positioner)
+            .setOnSpotlightStartedListener(new OnSpotlightStartedListener() { // callback when Spotlight starts
+              @Override
+              public void onStarted() {
+                  borrowed.borrow();
+                  Started(id);
+              }
+            })
+            .setOnSpotlightEndedListener(new OnSpotlightEndedListener() { // callback when Spotlight ends
+              @Override
+              public void onEnded() {
+                  borrowed.restore();
+                  Ended(id);
+              }
+            })
+            .setOnTargetClosedListener(newTargetClosedListener(idsByTarget))
+            .setMaskColor(maskColor);
+          startTour(tour, id);
+      } finally {
+        failStartup();
+      }
     }
 
     /**
@@ -540,68 +803,194 @@ public class CustomSpotlight extends AndroidNonvisibleComponent {
     @SimpleFunction(description = "Shows multiple spotlight using a custom layout.")
     public void ShowMultipleCustomSpotlightsAtPositons(YailList xPositions, YailList yPositions, 
       long duration, YailList radii, final YailList spotlightLayouts, final YailList layoutYPositions, final YailList layoutXPositions, final String id, YailList targetIds) {
-      
-      Object[] xArr = xPositions.toArray();
-      Object[] yArr = yPositions.toArray();
-      final Object[] spotlightLayoutsArr = spotlightLayouts.toArray();
-      Object[] radiiArr = radii.toArray();
-      final Object[] layoutXPosArr = layoutXPositions.toArray();
-      final Object[] layoutYPosArr = layoutYPositions.toArray();
-      final Object[] targetIdsArr = targetIds.toArray();
-      final ArrayList<CustomTarget> targets = new ArrayList<>();
-      for (int i = 0; i < xArr.length; i++) {
-        if (getView(spotlightLayoutsArr[i]).getParent() != null) {
-          ((ViewGroup) getView(spotlightLayoutsArr[i]).getParent()).removeView(getView(spotlightLayoutsArr[i]));
-        }
-        CustomTarget target = new CustomTarget.Builder(context)
-          .setPoint(Float.parseFloat(xArr[i].toString()), Float.parseFloat(yArr[i].toString())) // position of the Target. setPoint(Point point), setPoint(View view) will work too.
-          .setRadius(Float.parseFloat(radiiArr[i].toString()))
-          .setView(getView(spotlightLayoutsArr[i]))
-          .build();
-          targets.add(target);
+      beginStartup();
+      try {
+        Object[] layoutsArr = spotlightLayouts.toArray();
+        float[] xArr;
+        float[] yArr;
+        float[] radiiArr;
+        String[] targetIdsArr;
+        float[] layoutXPosArr;
+        float[] layoutYPosArr;
+        try {
+          xArr = ListParser.parseFloats("xPositions", xPositions.toArray());
+          yArr = ListParser.parseFloats("yPositions", yPositions.toArray());
+          radiiArr = ListParser.parseRadii(radii.toArray());
+          targetIdsArr = ListParser.parseStrings(targetIds.toArray());
+          layoutXPosArr = ListParser.parseFloats("layoutXPositions", layoutXPositions.toArray());
+          layoutYPosArr = ListParser.parseFloats("layoutYPositions", layoutYPositions.toArray());
+          ListParser.checkLengths(new String[] {"xPositions", "yPositions", "spotlightLayouts", "radii", 
+            "layoutYPositions", "layoutXPositions", "targetIds"}, xArr.length, yArr.length, layoutsArr.length, 
+            radiiArr.length, layoutYPosArr.length, layoutXPosArr.length, targetIdsArr.length);
+        } catch (IllegalArgumentException e) {
+          Error(e.getMessage());
+          return;
         }
-        Spotlight.with(context)
-          .setDuration(duration) // duration of Spotlight emerging and disappearing in ms
-          .setAnimation(new DecelerateInterpolator(2f)) // animation of Spotlight
-          .setTargets(targets.toArray(new SimpleTarget[targets.size()]))
-          .setOnSpotlightStartedListener(new OnSpotlightStartedListener() { // callback when Spotlight starts
-            @Override
-            public void onStarted() {
-                Started(id);
-            }
-          })
-          .setOnSpotlightEndedListener(new OnSpotlightEndedListener() { // callback when Spotlight ends
-            @Override
-            public void onEnded() {
-                Ended(id);
-            }
-          })
-          .setOnTargetClosedListener(new OnTargetClosedListener() {
-            @Override
-            public void onTargetClosed(Target target) {
-              TargetClosed(targetIdsArr[targets.indexOf(target)].toString());
-            }
-          })
-          .setMaskColor(maskColor)
-          .start();
-        Spotlight.getSpotlightView().getViewTreeObserver()
-        .addOnGlobalLayoutListener(new ViewTreeObserver.OnGlobalLayoutListener() {
-            @Override
-            public void onGlobalLayout() {
-              getView(spotlightLayoutsArr[targets.indexOf(Spotlight.getCurrentTarget())]).setY(Float.parseFloat(layoutYPosArr[targets.indexOf(Spotlight.getCurrentTarget())].toString()));
-              getView(spotlightLayoutsArr[targets.indexOf(Spotlight.getCurrentTarget())]).setX(Float.parseFloat(layoutXPosArr[targets.indexOf(Spotlight.getCurrentTarget())].toString()));
-            }
-          });
+        View[] layouts = getViews(layoutsArr);
+        ArrayList<CustomTarget> targets = new ArrayList<>();
+        ArrayList<View> shownLayouts = new ArrayList<>();
+        IdentityHashMap<Target, String> idsByTarget = new IdentityHashMap<>();
+        // the target of each layout, or null for the skipped ones.
+        Target[] layoutTargets = new Target[layouts.length];
+        for (int i = 0; i < xArr.length; i++) {
+          if (layouts[i] == null) {
+            continue;
+          }
+          CustomTarget target = TargetBuilders.build(new CustomTarget.Builder(context)
+            .setPoint(xArr[i], yArr[i]) // position of the Target. setPoint(Point point), setPoint(View view) will work too.
+            .setRadius(radiiArr[i])
+            .setView(layouts[i]));
+            targets.add(target);
+            layoutTargets[i] = target;
+            shownLayouts.add(layouts[i]);
+            idsByTarget.put(target, targetIdsArr[i]);
+          }
+          Target[] targetsArr = targets.toArray(new Target[targets.size()]);
+          final BorrowedLayouts borrowed = new BorrowedLayouts(shownLayouts.toArray(new View[shownLayouts.size()]));
+          final LayoutPositioner positioner = new LayoutPositioner(layoutTargets, layouts, layoutXPosArr, layoutYPosArr);
+          SpotlightTour tour = new SpotlightTour()
+            .setDuration(duration) // duration of Spotlight emerging and disappearing in ms
+            .setAnimation(new DecelerateInterpolator(2f)) // animation of Spotlight
+            .setTargets(targetsArr)
+            .setLayoutPositioner(positioner)
+            .setOnSpotlightStartedListener(new OnSpotlightStartedListener() { // callback when Spotlight starts
+              @Override
+              public void onStarted() {
+                  borrowed.borrow();
+                  Started(id);
+              }
+            })
+            .setOnSpotlightEndedListener(new OnSpotlightEndedListener() { // callback when Spotlight ends
+              @Override
+              public void onEnded() {
+                  borrowed.restore();
+                  Ended(id);
+              }
+            })
+            .setOnTargetClosedListener(newTargetClosedListener(idsByTarget))
+            .setMaskColor(maskColor);
+          startTour(tour, id);
+      } finally {
+        failStartup();
+      }
     }
 
     /**
-     * Called when a spotlight starts.
+     * Prepares a tour of multiple spotlights on the components given, the tour is built when the app is idle, 
+     * and can be shown instantly, as many times as needed, using the StartTour block.
      * 
-     * @param id the spotlight's id
+     * @param components a list of components to show the spotlights on
+     * @param titles a list of the spotlights' titles, supports HTML text
+     * @param descriptions a list of the spotlights' descriptions, supports HTML text
+     * @param duration the duration that the spotlight show take to show or hide, in melliseconds
+     * @param radii a list of the spotlights' circles radii
+     * @param targetIds the ids of the targerts, used when calling TargetClosed event
+     * @param id a unique id for the spotlight, used when calling the Started and Ended events
+     * @return the prepared tour
      */
-    @SimpleEvent(description = "Called when a spotlight starts.")
+    @SimpleFunction(description = "Prepares a tour of multiple spotlights on the components given while the app is idle, "
+      + "and returns it so that it can be shown instantly, as many times as needed, using the StartTour block.")
+    public Object PrepareTour(YailList components, YailList titles, YailList descriptions, long duration, YailList radii, YailList targetIds, final String id) {
+      Object[] componentsArr = components.toArray();
+      final String[] titlesArr;
+      final String[] descriptionsArr;
+      final float[] radiiArr;
+      final String[] targetIdsArr;
+      try {
+        titlesArr = ListParser.parseStrings(titles.toArray());
+        descriptionsArr = ListParser.parseStrings(descriptions.toArray());
+        radiiArr = ListParser.parseRadii(radii.toArray());
+        targetIdsArr = ListParser.parseStrings(targetIds.toArray());
+        ListParser.checkLengths(new String[] {"components", "titles", "descriptions", "radii", "targetIds"},
+          componentsArr.length, titlesArr.length, descriptionsArr.length, radiiArr.length, targetIdsArr.length);
+      } catch (IllegalArgumentException e) {
+        Error(e.getMessage());
+        return null;
+      }
+      final View[] views = getViews(componentsArr);
+      final PreparedTour tour = new PreparedTour(id, duration, new PreparedTour.Preparer() {
+        @Override
+        public void prepare(PreparedTour tour) {
+          TargetVisibility[] visibilities = TargetVisibility.check(views);
+          for (int i = 0; i < views.length; i++) {
+            if (views[i] == null) {
+              continue;
+            }
+            if (!visibilities[i].isVisible()) {
+              TargetSkipped(targetIdsArr[i]);
+              continue;
+            }
+            try {
+              Target target = track(TargetBuilders.build(newTargetBuilder(titlesArr[i], descriptionsArr[i])
+                .setPoint(views[i]) // position of the Target.
+                .setRadius(holeRadius(views[i], radiiArr[i]))), // radius of the Target
+                views[i], visibilities[i]);
+              tour.addTarget(target, targetIdsArr[i]);
+            } catch (Exception e) {
+              Error(e.toString());
+              continue;
+            }
+          }
+        }
+      });
+      tour.setListeners(new OnSpotlightStartedListener() { // callback when Spotlight starts
+          @Override
+          public void onStarted() {
+              Started(id);
+          }
+        }, new OnSpotlightEndedListener() { // callback when Spotlight ends
+          @Override
+          public void onEnded() {
+              Ended(id);
+          }
+        }, new OnTargetClosedListener() {
+          @Override
+          public void onTargetClosed(Target target) {
+            TargetClosed(tour.getTargetId(target));
+          }
+        });
+      for (int i = 0; i < titlesArr.length; i++) {
+        precomputeTexts(titlesArr[i], descriptionsArr[i]);
+      }
+      tour.schedule(context.getWindow().getDecorView());
+      return tour;
+    }
+
+    /**
+     * Shows a tour that was prepared using the PrepareTour block.
+     * 
+     * @param tour the prepared tour
+     */
+    @SimpleFunction(description = "Shows a tour that was prepared using the PrepareTour block.")
+    public void StartTour(Object tour) {
+      if (!(tour instanceof PreparedTour)) {
+        Error("The given tour was not created using the PrepareTour block.");
+        return;
+      }
+      try {
+        beginStartup();
+        SpotlightTour prepared = ((PreparedTour) tour).getTour();
+        prepared.setMaskColor(maskColor);
+        startTour(prepared, ((PreparedTour) tour).getId());
+      } catch (Exception e) {
+        Error(e.toString());
+      } finally {
+        failStartup();
+      }
+    }
+
+    /**
+     * Called when a spotlight starts.
+     * 
+     * @param id the spotlight's id
+     */
+    @SimpleEvent(description = "Called when a spotlight starts.")
     public void Started(String id) {
-      EventDispatcher.dispatchEvent(this, "Started", id);
+      if (startupTrace != null) {
+        startupTrace.started();
+      }
+      startMeasuring();
+      dispatch("Started", id);
     }
     
     /**
@@ -611,7 +1000,30 @@ public class CustomSpotlight extends AndroidNonvisibleComponent {
      */
     @SimpleEvent(description = "Called when a spotlight ends.")
     public void Ended(String id) {
-      EventDispatcher.dispatchEvent(this, "Ended", id);
+      // stop recording before the handler runs, since it may show another spotlight.
+      boolean measured = frameStats != null && frameStats.stop();
+      if (measured) {
+        lastTourStats = frameStats.summary();
+      }
+      dispatch("Ended", id);
+      if (measured) {
+        PerformanceReport(id, lastTourStats);
+      }
+    }
+
+    /**
+     * Called after a spotlight ends when the MeasurePerformance property is enabled, with the frame stats of the
+     * spotlight.
+     * 
+     * @param id the spotlight's id
+     * @param stats a list of pairs of the frame count, the janky frame count, and the p50, p95 and p99 frame times
+     * in milliseconds
+     */
+    @SimpleEvent(description = "Called after a spotlight ends when the MeasurePerformance property is enabled. "
+      + "The stats are a list of pairs of the frames count, the janky frames count, and the p50, p95 and p99 frame "
+      + "times in milliseconds.")
+    public void PerformanceReport(String id, YailList stats) {
+      dispatch("PerformanceReport", id, stats);
     }
 
     /**
@@ -621,7 +1033,28 @@ public class CustomSpotlight extends AndroidNonvisibleComponent {
      */
     @SimpleEvent(description = "Called when a target is closed.")
     public void TargetClosed(String targetId) {
-      EventDispatcher.dispatchEvent(this, "TargetClosed", targetId);
+      dispatch("TargetClosed", targetId);
+    }
+
+    /**
+     * Called when a target is skipped because its component isn't visible.
+     * 
+     * @param targetId the id of the skipped target
+     */
+    @SimpleEvent(description = "Called when a target is skipped because its component isn't visible, has no size, "
+      + "or is off the screen outside of a scroll arrangement.")
+    public void TargetSkipped(String targetId) {
+      dispatch("TargetSkipped", targetId);
+    }
+
+    /**
+     * Called when a typeface set using the TitleTypeface or DescriptionTypeface properties is loaded.
+     * 
+     * @param path the path of the loaded typeface
+     */
+    @SimpleEvent(description = "Called when a typeface set using the TitleTypeface or DescriptionTypeface properties is loaded.")
+    public void TypefaceLoaded(String path) {
+      EventDispatcher.dispatchEvent(this, "TypefaceLoaded", path);
     }
 
     /**
@@ -637,6 +1070,19 @@ public class CustomSpotlight extends AndroidNonvisibleComponent {
       }
     }
 
+    /**
+     * Reports an error from outside a block, such as a background load or a skipped list entry. Unlike Error, an
+     * unhandled error is shown by the screen instead of being thrown, so it can't crash the app or abort the block.
+     * 
+     * @param error the full error message
+     */
+    private void reportError(String error) {
+      if (!EventDispatcher.dispatchEvent(this, "Error", error)) {
+        form.dispatchErrorOccurredEvent(this, "Error", ErrorMessages.ERROR_EXTENSION_ERROR, 1, "CustomSpotlight",
+          error);
+      }
+    }
+
     /**
      * Specifies the spotlight mask color.
      * 
@@ -654,32 +1100,44 @@ public class CustomSpotlight extends AndroidNonvisibleComponent {
     }
 
     /**
-     * Specifies a custom font for the spotlight's title.
+     * Specifies a custom font for the spotlight's title, the font is loaded in the background, and the 
+     * TypefaceLoaded event is called once it's ready. A spotlight shown before then loads the font right away.
      * 
      * @param path the path to the title's typeface, can be an asset, or a file path
      */
     @DesignerProperty(editorType = PropertyTypeConstants.PROPERTY_TYPE_ASSET)
-    @SimpleProperty(description = "Specifies a custom font for the spotlight's title.")
+    @SimpleProperty(description = "Specifies a custom font for the spotlight's title, the font is loaded in the background, "
+      + "and the TypefaceLoaded event is called once it's ready. A spotlight shown before then loads the font "
+      + "right away.")
     public void TitleTypeface(String path) {
-      if (path == "None") {
+      if (path.isEmpty() || "None".equals(path)) {
         titlePath = "";
+        titleTypeface = null;
+        titleTypefaceKey = null;
+        titleStyle = null;
         return;
       }
       titlePath = path;
-      if (path.startsWith(getExternalStoragePath().getAbsolutePath())
-      || path.startsWith("/sdcard/")
-      || path.startsWith("file:")) {
-        // the given path is an external file.
-        titleTypeface = Typeface.createFromFile(path);
-      } else {
-        // probably an asset.
-        if (isRepl) {
-          path = getAssetsPath() + path;
-          titleTypeface = Typeface.createFromFile(path);
-        } else {
-          titleTypeface = Typeface.createFromAsset(context.getAssets(), path);
+      final String requestedPath = path;
+      titleStyle = null;
+      titleTypefaceKey = typefaceKey(path);
+      titleTypeface = loadTypeface(titleTypefaceKey, new TypefaceCache.Callback() {
+        @Override
+        public void onLoaded(Typeface typeface) {
+          if (requestedPath.equals(titlePath)) {
+            titleTypeface = typeface;
+            titleStyle = null;
+            TypefaceLoaded(requestedPath);
+          }
         }
-      }
+
+        @Override
+        public void onFailed(Exception e) {
+          if (requestedPath.equals(titlePath)) {
+            reportError(e.toString());
+          }
+        }
+      });
     }
 
     @SimpleProperty
@@ -693,30 +1151,44 @@ public class CustomSpotlight extends AndroidNonvisibleComponent {
     }
     
     /**
-     * Specifies a custom font for the spotlight's description.
+     * Specifies a custom font for the spotlight's description, the font is loaded in the background, and the 
+     * TypefaceLoaded event is called once it's ready. A spotlight shown before then loads the font right away.
      * 
      * @param path the path to the title's typeface, can be an asset, or a file path
      */
     @DesignerProperty(editorType = PropertyTypeConstants.PROPERTY_TYPE_ASSET)
-    @SimpleProperty(description = "Specifies a custom font for the spotlight's description.")
+    @SimpleProperty(description = "Specifies a custom font for the spotlight's description, the font is loaded in the background, "
+      + "and the TypefaceLoaded event is called once it's ready. A spotlight shown before then loads the font "
+      + "right away.")
     public void DescriptionTypeface(String path) {
-      if (path == "None") {
+      if (path.isEmpty() || "None".equals(path)) {
         descriptionPath = "";
+        descriptionTypeface = null;
+        descriptionTypefaceKey = null;
+        descriptionStyle = null;
         return;
       }
       descriptionPath = path;
-      if (path.startsWith(getExternalStoragePath().getAbsolutePath())
-      || path.startsWith("/sdcard/")
-      || path.startsWith("file:")) {
-        descriptionTypeface = Typeface.createFromFile(path);
-      } else {
-        if (isRepl) {
-          path = getAssetsPath() + path;
-          descriptionTypeface = Typeface.createFromFile(path);
-        } else {
-          descriptionTypeface = Typeface.createFromAsset(context.getAssets(), path);
+      final String requestedPath = path;
+      descriptionStyle = null;
+      descriptionTypefaceKey = typefaceKey(path);
+      descriptionTypeface = loadTypeface(descriptionTypefaceKey, new TypefaceCache.Callback() {
+        @Override
+        public void onLoaded(Typeface typeface) {
+          if (requestedPath.equals(descriptionPath)) {
+            descriptionTypeface = typeface;
+            descriptionStyle = null;
+            TypefaceLoaded(requestedPath);
+          }
         }
-      }
+
+        @Override
+        public void onFailed(Exception e) {
+          if (requestedPath.equals(descriptionPath)) {
+            reportError(e.toString());
+          }
+        }
+      });
     }
 
     /**
@@ -728,6 +1200,7 @@ public class CustomSpotlight extends AndroidNonvisibleComponent {
     @SimpleProperty(description = "The spotlight's title font size.")
     public void TitleFontSize(int size) {
       titleFontSize = size;
+      titleStyle = null;
     }
 
     @SimpleProperty
@@ -744,6 +1217,7 @@ public class CustomSpotlight extends AndroidNonvisibleComponent {
     @SimpleProperty(description = "The spotlight's description font size.")
     public void DescriptionFontSize(int size) {
       descriptionFontSize = size;
+      descriptionStyle = null;
     }
 
     @SimpleProperty
@@ -783,6 +1257,622 @@ public class CustomSpotlight extends AndroidNonvisibleComponent {
       return descriptionColor;
     }
 
+    /**
+     * Specifies whether the multiple spotlights blocks should build each target only when the spotlight reaches it.
+     * 
+     * @param lazy true to build the targets lazily
+     */
+    @DesignerProperty(editorType = PropertyTypeConstants.PROPERTY_TYPE_BOOLEAN, defaultValue = "False")
+    @SimpleProperty(description = "Specifies whether the multiple spotlights blocks should build each target only when the spotlight reaches it, "
+      + "this makes long tours start faster.")
+    public void LazyTargets(boolean lazy) {
+      lazyTargets = lazy;
+    }
+
+    @SimpleProperty
+    public boolean LazyTargets() {
+      return lazyTargets;
+    }
+
+    /**
+     * Specifies whether the spotlights shown on components should follow them when they move.
+     * 
+     * @param track true to follow the components
+     */
+    @DesignerProperty(editorType = PropertyTypeConstants.PROPERTY_TYPE_BOOLEAN, defaultValue = "False")
+    @SimpleProperty(description = "Specifies whether the spotlights shown on components should follow them when they "
+      + "scroll, animate or move after a layout change, such as when the keyboard opens. Only applies to the "
+      + "spotlights with a title and a description.")
+    public void TrackTargets(boolean track) {
+      trackTargets = track;
+    }
+
+    @SimpleProperty
+    public boolean TrackTargets() {
+      return trackTargets;
+    }
+
+    /**
+     * Specifies the shape of the spotlights shown on components.
+     * 
+     * @param shape Circle, RoundedRectangle or Pill
+     */
+    @DesignerProperty(editorType = PropertyTypeConstants.PROPERTY_TYPE_CHOICES, defaultValue = HoleShape.CIRCLE,
+      editorArgs = {HoleShape.CIRCLE, HoleShape.ROUNDED_RECTANGLE, HoleShape.PILL})
+    @SimpleProperty(description = "Specifies the shape of the spotlights shown on components, can be Circle, "
+      + "RoundedRectangle or Pill. The RoundedRectangle and Pill shapes are sized from the component's bounds "
+      + "plus the ShapePadding, and ignore the given radius. Spotlights at a point, group spotlights and custom "
+      + "layout spotlights are always circles.")
+    public void SpotlightShape(String shape) {
+      if (!HoleShape.isValid(shape)) {
+        Error("Unknown spotlight shape: " + shape + ", it should be Circle, RoundedRectangle or Pill.");
+        return;
+      }
+      spotlightShape = shape;
+    }
+
+    @SimpleProperty
+    public String SpotlightShape() {
+      return spotlightShape;
+    }
+
+    /**
+     * Specifies the space between a component and the edge of its RoundedRectangle or Pill spotlight.
+     * 
+     * @param padding the padding, in pixels
+     */
+    @DesignerProperty(editorType = PropertyTypeConstants.PROPERTY_TYPE_NON_NEGATIVE_INTEGER, defaultValue = "16")
+    @SimpleProperty(description = "Specifies the space between a component and the edge of its RoundedRectangle "
+      + "or Pill spotlight, in pixels.")
+    public void ShapePadding(int padding) {
+      shapePadding = padding;
+    }
+
+    @SimpleProperty
+    public int ShapePadding() {
+      return shapePadding;
+    }
+
+    /**
+     * Specifies whether the spotlight circles should be opened and closed by the render thread.
+     * 
+     * @param enabled true to animate the circles on the render thread
+     */
+    @DesignerProperty(editorType = PropertyTypeConstants.PROPERTY_TYPE_BOOLEAN, defaultValue = "False")
+    @SimpleProperty(description = "Specifies whether the spotlight circles should be opened and closed by the "
+      + "render thread, so that the animation stays smooth while the app is busy, for example while a block "
+      + "handler runs. Requires Android 5.0 or above, and only applies to circles, the other shapes and group "
+      + "spotlights are animated as usual.")
+    public void RenderThreadAnimations(boolean enabled) {
+      renderThreadAnimations = enabled;
+    }
+
+    @SimpleProperty
+    public boolean RenderThreadAnimations() {
+      return renderThreadAnimations;
+    }
+
+    /**
+     * Specifies how the spotlights are rendered.
+     * 
+     * @param profile Auto, Full or Lite
+     */
+    @DesignerProperty(editorType = PropertyTypeConstants.PROPERTY_TYPE_CHOICES, defaultValue = RenderingProfile.FULL,
+      editorArgs = {RenderingProfile.AUTO, RenderingProfile.FULL, RenderingProfile.LITE})
+    @SimpleProperty(description = "Specifies how the spotlights are rendered, can be Auto, Full or Lite. Full "
+      + "animates the mask and the spotlights, Lite shows them at once without animations, which is lighter for "
+      + "low end devices. Auto uses Lite on low RAM devices, and on devices with little memory and a 60Hz display.")
+    public void RenderingProfile(String profile) {
+      if (!RenderingProfile.isValid(profile)) {
+        Error("Unknown rendering profile: " + profile + ", it should be Auto, Full or Lite.");
+        return;
+      }
+      renderingProfile = profile;
+    }
+
+    @SimpleProperty
+    public String RenderingProfile() {
+      return renderingProfile;
+    }
+
+    /**
+     * Specifies the priority of the spotlights shown after setting it.
+     * 
+     * @param priority the priority, higher priorities are shown first
+     */
+    @DesignerProperty(editorType = PropertyTypeConstants.PROPERTY_TYPE_INTEGER, defaultValue = "0")
+    @SimpleProperty(description = "Specifies the priority of the spotlights shown after setting it. A spotlight "
+      + "shown while another spotlight is active waits in a queue, the queued spotlights with a higher priority are "
+      + "shown first, and a queued spotlight replaces the queued spotlight with the same id.")
+    public void Priority(int priority) {
+      this.priority = priority;
+    }
+
+    @SimpleProperty
+    public int Priority() {
+      return priority;
+    }
+
+    /**
+     * Returns the number of spotlights waiting to be shown.
+     */
+    @SimpleProperty(description = "The number of spotlights waiting for the active spotlight to end.")
+    public int QueueSize() {
+      return session.getQueueSize();
+    }
+
+    /**
+     * Specifies whether the Started, TargetClosed, Ended, TargetSkipped and PerformanceReport events should be
+     * dispatched after the current frame.
+     * 
+     * @param defer true to dispatch the events after the current frame
+     */
+    @DesignerProperty(editorType = PropertyTypeConstants.PROPERTY_TYPE_BOOLEAN, defaultValue = "False")
+    @SimpleProperty(description = "Specifies whether the Started, TargetClosed, Ended, TargetSkipped and "
+      + "PerformanceReport events should be dispatched after the current frame, instead of while the spotlight "
+      + "animates, so heavy event handlers don't delay the animations. The events are still dispatched in order, "
+      + "each one exactly once.")
+    public void DeferEvents(boolean defer) {
+      deferEvents = defer;
+    }
+
+    @SimpleProperty
+    public boolean DeferEvents() {
+      return deferEvents;
+    }
+
+    /**
+     * Specifies whether the frame times of each spotlight should be recorded, and reported using the
+     * PerformanceReport event.
+     * 
+     * @param measure true to record the frame times
+     */
+    @DesignerProperty(editorType = PropertyTypeConstants.PROPERTY_TYPE_BOOLEAN, defaultValue = "False")
+    @SimpleProperty(description = "Specifies whether the frame times of each spotlight should be recorded, and "
+      + "reported using the PerformanceReport event when the spotlight ends.")
+    public void MeasurePerformance(boolean measure) {
+      measurePerformance = measure;
+      if (!measure && frameStats != null) {
+        frameStats.stop();
+      }
+    }
+
+    @SimpleProperty
+    public boolean MeasurePerformance() {
+      return measurePerformance;
+    }
+
+    /**
+     * Specifies whether the component warms up on its own once the screen is shown, like calling the WarmUp block.
+     * 
+     * @param enabled true to warm up once the screen is shown
+     */
+    @DesignerProperty(editorType = PropertyTypeConstants.PROPERTY_TYPE_BOOLEAN, defaultValue = "False")
+    @SimpleProperty(description = "Specifies whether the component warms up on its own once the screen is shown, "
+      + "like calling the WarmUp block.")
+    public void AutoWarmUp(boolean enabled) {
+      autoWarmUp = enabled;
+      if (enabled) {
+        scheduleWarmUp();
+      }
+    }
+
+    @SimpleProperty
+    public boolean AutoWarmUp() {
+      return autoWarmUp;
+    }
+
+    /**
+     * Specifies whether the time each phase of showing a spotlight takes should be measured, the breakdown can be
+     * read using the LastStartupBreakdown property.
+     * 
+     * @param trace true to measure the startup phases
+     */
+    @DesignerProperty(editorType = PropertyTypeConstants.PROPERTY_TYPE_BOOLEAN, defaultValue = "False")
+    @SimpleProperty(description = "Specifies whether the time each phase of showing a spotlight takes should be "
+      + "measured, the phases are also marked as trace sections for systrace captures.")
+    public void TraceStartup(boolean trace) {
+      if (trace && startupTrace == null) {
+        startupTrace = new StartupTrace();
+      } else if (!trace && startupTrace != null) {
+        startupTrace.cancel();
+        lastStartupBreakdown = startupTrace.breakdown();
+        startupTrace = null;
+      }
+    }
+
+    @SimpleProperty
+    public boolean TraceStartup() {
+      return startupTrace != null;
+    }
+
+    /**
+     * Returns the startup phases of the last spotlight shown while TraceStartup was enabled.
+     */
+    @SimpleProperty(description = "The startup phases of the last spotlight shown while TraceStartup was enabled, "
+      + "as a list of pairs of the targets, text, attach, started and firstDraw phases and their durations in "
+      + "milliseconds. started is the total time from the show block call up to the Started event.")
+    public YailList LastStartupBreakdown() {
+      return startupTrace != null ? startupTrace.breakdown() : lastStartupBreakdown;
+    }
+
+    /**
+     * Returns the frame stats of the last spotlight measured, in the same format as the PerformanceReport event.
+     */
+    @SimpleProperty(description = "The frame stats of the last measured spotlight, in the same format as the "
+      + "PerformanceReport event.")
+    public YailList LastTourStats() {
+      return lastTourStats;
+    }
+
+    /**
+     * Schedules warming up the first time the UI thread is idle after the screen is shown.
+     */
+    private void scheduleWarmUp() {
+      if (warmedUp || warmUpScheduled) {
+        return;
+      }
+      warmUpScheduled = true;
+      Looper.myQueue().addIdleHandler(warmUpHandler);
+    }
+
+    /**
+     * Builds a target the same way the show blocks do, which loads the library's classes, inflates the target views
+     * and lays the text out with the title and description styles, then draws it on the overlay in a frame that
+     * can't be seen.
+     */
+    private void warmUp() {
+      if (warmedUp) {
+        return;
+      }
+      try {
+        SimpleTarget sample = TargetBuilders.build(newTargetBuilder("CustomSpotlight", "CustomSpotlight")
+          .setPoint(0f, 0f)
+          .setRadius(1f));
+        session.warmUp(sample.getView(), RenderingProfile.isLite(renderingProfile, context));
+        warmedUp = true;
+      } catch (Exception e) {
+        Error(e.toString());
+      }
+    }
+
+    /**
+     * Dispatches the given spotlight event, after the current frame if the DeferEvents property is enabled. The
+     * events are deferred while earlier events are waiting, so they're always dispatched in order.
+     */
+    private void dispatch(String name, Object... args) {
+      if (deferEvents || deferredEvents.hasPending()) {
+        deferredEvents.post(name, args);
+      } else {
+        EventDispatcher.dispatchEvent(this, name, args);
+      }
+    }
+
+    /**
+     * Starts the given tour, or queues it if a spotlight is already shown. The tour can then be dismissed using
+     * the DismissTarget and DismissSpotlight blocks.
+     */
+    private void startTour(SpotlightTour tour, String id) {
+      // the spotlight does the warm up's work itself.
+      warmedUp = true;
+      if (startupTrace != null) {
+        startupTrace.beginAttach();
+      }
+      tour.setRenderThreadAnimations(renderThreadAnimations)
+        .setLiteRendering(RenderingProfile.isLite(renderingProfile, context));
+      if (session.submit(tour, id, priority)) {
+        endStartup(tour);
+      } else if (startupTrace != null) {
+        // a queued tour's startup includes the time it waited, so it's not traced.
+        startupTrace.cancel();
+      }
+    }
+
+    /**
+     * Starts measuring the startup of a spotlight, if enabled.
+     */
+    private void beginStartup() {
+      if (startupTrace != null) {
+        startupTrace.begin();
+      }
+    }
+
+    /**
+     * Stops measuring the startup of a spotlight that failed before it was attached, called when each Show block
+     * returns.
+     */
+    private void failStartup() {
+      if (startupTrace != null) {
+        startupTrace.failed();
+      }
+    }
+
+    /**
+     * Ends measuring the startup of the given tour, the first draw is measured once the overlay is drawn.
+     */
+    private void endStartup(SpotlightTour tour) {
+      if (startupTrace != null) {
+        startupTrace.attached(tour.getOverlay());
+      }
+    }
+
+    /**
+     * Starts recording the frame times of the spotlight that is about to be shown, if enabled.
+     */
+    private void startMeasuring() {
+      if (!measurePerformance) {
+        return;
+      }
+      if (frameStats == null) {
+        frameStats = new FrameStats(context);
+        session.setFrameObserver(frameStats);
+      }
+      frameStats.start();
+    }
+
+    /**
+     * Creates a target builder with the given title and description, and the current text styles.
+     * 
+     * @param title the target title, can be an html text
+     * @param description the target description, can be an html text
+     * @return the target builder
+     */
+    private SimpleTarget.Builder newTargetBuilder(String title, String description) {
+      return new TextTargetBuilder(context)
+        .setTitle(titleText(title)) // title
+        .setDescription(descriptionText(description)) // description
+        .setTitleTypeFace(titleTypeface())
+        .setDescriptionTypeFace(descriptionTypeface())
+        .setTitleFontSize(titleFontSize)
+        .setDescriptionFontSize(descriptionFontSize)
+        .setTitleColor(titleColor)
+        .setDescriptionColor(descriptionColor);
+    }
+
+    /**
+     * Returns the given title text, parsed and measured if it was precomputed before.
+     */
+    private CharSequence titleText(String title) {
+      if (startupTrace != null) {
+        startupTrace.beginText();
+      }
+      TextCache.Style style = titleStyle();
+      CharSequence text = style == null ? TextCache.fromHtml(title) : style.get(title);
+      if (startupTrace != null) {
+        startupTrace.endText();
+      }
+      return text;
+    }
+
+    /**
+     * Returns the given description text, parsed and measured if it was precomputed before.
+     */
+    private CharSequence descriptionText(String description) {
+      if (startupTrace != null) {
+        startupTrace.beginText();
+      }
+      TextCache.Style style = descriptionStyle();
+      CharSequence text = style == null ? TextCache.fromHtml(description) : style.get(description);
+      if (startupTrace != null) {
+        startupTrace.endText();
+      }
+      return text;
+    }
+
+    /**
+     * Parses and measures the given texts in the background, so that they're ready when their target is built.
+     * 
+     * @param title the target title, can be an html text
+     * @param description the target description, can be an html text
+     */
+    private void precomputeTexts(String title, String description) {
+      TextCache.Style style = titleStyle();
+      if (style != null) {
+        style.precompute(title);
+      }
+      style = descriptionStyle();
+      if (style != null) {
+        style.precompute(description);
+      }
+    }
+
+    /**
+     * Returns the text style of the titles, the title text view is configured the same way the target builder does.
+     * 
+     * @return the title style, or null if text can't be precomputed on this device
+     */
+    private TextCache.Style titleStyle() {
+      if (titleStyle == null && Build.VERSION.SDK_INT >= Build.VERSION_CODES.P) {
+        TextView template = new TextView(context);
+        template.setTextSize(titleFontSize);
+        template.setTypeface(titleTypeface(), Typeface.BOLD);
+        titleStyle = new TextCache.Style(template);
+      }
+      return titleStyle;
+    }
+
+    /**
+     * Returns the text style of the descriptions, the description text view is configured the same way the 
+     * target builder does.
+     * 
+     * @return the description style, or null if text can't be precomputed on this device
+     */
+    private TextCache.Style descriptionStyle() {
+      if (descriptionStyle == null && Build.VERSION.SDK_INT >= Build.VERSION_CODES.P) {
+        TextView template = new TextView(context);
+        template.setTextSize(descriptionFontSize);
+        if (descriptionTypeface() != null) {
+          template.setTypeface(descriptionTypeface);
+        }
+        descriptionStyle = new TextCache.Style(template);
+      }
+      return descriptionStyle;
+    }
+
+    /**
+     * Creates a target on the given view, which is built when the spotlight reaches it.
+     * 
+     * @return the lazy target
+     */
+    private LazyTarget newLazyTarget(final View view, final String title, final String description, final float radius) {
+      return new LazyTarget(new LazyTarget.Factory() {
+        @Override
+        public Target build() {
+          return TargetBuilders.build(newTargetBuilder(title, description)
+            .setPoint(view)
+            .setRadius(radius));
+        }
+      });
+    }
+
+    /**
+     * Creates a target at the given point, which is built when the spotlight reaches it.
+     * 
+     * @return the lazy target
+     */
+    private LazyTarget newLazyTarget(final float x, final float y, final String title, final String description, final float radius) {
+      return new LazyTarget(new LazyTarget.Factory() {
+        @Override
+        public Target build() {
+          return TargetBuilders.build(newTargetBuilder(title, description)
+            .setPoint(x, y)
+            .setRadius(radius));
+        }
+      });
+    }
+
+    /**
+     * Creates a listener that calls the TargetClosed event with the id bound to the closed target.
+     * 
+     * @param idsByTarget the id of each target of the spotlight
+     * @return the listener
+     */
+    private OnTargetClosedListener newTargetClosedListener(final IdentityHashMap<Target, String> idsByTarget) {
+      return new OnTargetClosedListener() {
+        @Override
+        public void onTargetClosed(Target target) {
+          releaseTarget(target);
+          TargetClosed(idsByTarget.get(target));
+        }
+      };
+    }
+
+    /**
+     * Binds the given target to its component, so that it's recalculated when the window is resized, and follows
+     * the component while it's shown if enabled.
+     * 
+     * @param target the target
+     * @param view the component's view
+     * @param visibility the component's visibility, used to scroll the component into view before it's shown
+     * @return the bound target
+     */
+    private Target track(Target target, View view, TargetVisibility visibility) {
+      return new TrackedTarget(target, view, trackTargets, HoleShape.CIRCLE.equals(spotlightShape) ? null
+        : spotlightShape, shapePadding, visibility.getScrollContainer());
+    }
+
+    /**
+     * Returns the radius of the given component's target, a shaped hole uses half of its height instead of the
+     * given radius, so that the text is placed right outside the shape.
+     * 
+     * @param view the component's view
+     * @param radius the radius given to the block
+     * @return the target radius
+     */
+    private float holeRadius(View view, float radius) {
+      if (HoleShape.CIRCLE.equals(spotlightShape)) {
+        return radius;
+      }
+      return view.getHeight() / 2f + shapePadding;
+    }
+
+    /**
+     * Releases the views of the given target, if it was built lazily.
+     */
+    private void releaseTarget(Target target) {
+      if (target instanceof TrackedTarget) {
+        target = ((TrackedTarget) target).getTarget();
+      }
+      if (target instanceof LazyTarget) {
+        ((LazyTarget) target).release();
+      }
+    }
+
+    /**
+     * Releases the views of all the given targets that were built lazily.
+     */
+    private void releaseTargets(ArrayList<Target> targets) {
+      for (Target target : targets) {
+        releaseTarget(target);
+      }
+    }
+
+    /**
+     * Returns the typeface cache key of the given path.
+     * 
+     * @param path the path to the typeface, can be an asset, or a file path
+     */
+    private String typefaceKey(String path) {
+      if (path.startsWith(getExternalStoragePath().getAbsolutePath())
+      || path.startsWith("/sdcard/")
+      || path.startsWith("file:")) {
+        // the given path is an external file.
+        return TypefaceCache.fileKey(path);
+      } else if (isRepl) {
+        // probably an asset, which the companion keeps in the external storage.
+        return TypefaceCache.fileKey(getAssetsPath() + path);
+      }
+      return TypefaceCache.assetKey(path);
+    }
+
+    /**
+     * Loads the typeface with the given key in the background, using the shared typeface cache.
+     * 
+     * @param key the typeface cache key
+     * @param callback called once the typeface is loaded
+     * @return the typeface if it's already loaded, or null
+     */
+    private Typeface loadTypeface(String key, TypefaceCache.Callback callback) {
+      TypefaceCache.load(context.getAssets(), key, callback);
+      return TypefaceCache.get(key);
+    }
+
+    /**
+     * Returns the title typeface, decoding it right away if a spotlight is shown before it's loaded in the 
+     * background.
+     * 
+     * @return the typeface, or null to use the default one
+     */
+    private Typeface titleTypeface() {
+      if (titleTypeface == null && titleTypefaceKey != null) {
+        try {
+          titleTypeface = TypefaceCache.require(context.getAssets(), titleTypefaceKey);
+        } catch (Exception e) {
+          // the error is reported once the background load fails too.
+          titleTypefaceKey = null;
+        }
+      }
+      return titleTypeface;
+    }
+
+    /**
+     * Returns the description typeface, decoding it right away if a spotlight is shown before it's loaded in the 
+     * background.
+     * 
+     * @return the typeface, or null to use the default one
+     */
+    private Typeface descriptionTypeface() {
+      if (descriptionTypeface == null && descriptionTypefaceKey != null) {
+        try {
+          descriptionTypeface = TypefaceCache.require(context.getAssets(), descriptionTypefaceKey);
+        } catch (Exception e) {
+          // the error is reported once the background load fails too.
+          descriptionTypefaceKey = null;
+        }
+      }
+      return descriptionTypeface;
+    }
+
     /**
      * Returns the path to the external storage.
      * 
@@ -800,11 +1890,14 @@ public class CustomSpotlight extends AndroidNonvisibleComponent {
     }
 
     /**
-     * Resolves the companion assets path.
+     * Resolves the companion assets path, once the path is found it's kept for the rest of the process.
      * 
      * @return the absolute assets path
      */
     private String getAssetsPath() {
+      if (assetsPath != null) {
+        return assetsPath;
+      }
       String externalStoragePath = getExternalStoragePath().toString();
       String pathToAssets = "";
       if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
@@ -825,27 +1918,76 @@ public class CustomSpotlight extends AndroidNonvisibleComponent {
           }
         }
       }
+      if (!pathToAssets.isEmpty()) {
+        // the companion may create the assets directory later on.
+        assetsPath = pathToAssets;
+      }
       return pathToAssets;
     }
 
+    /**
+     * Returns the views of the given components, the components that have no view are reported in a single error.
+     * 
+     * @return the view of each component, or null for the components that have no view
+     */
+    private View[] getViews(Object[] components) {
+      View[] views = new View[components.length];
+      StringBuilder unresolved = null;
+      for (int i = 0; i < components.length; i++) {
+        views[i] = getView(components[i]);
+        if (views[i] == null) {
+          if (unresolved == null) {
+            unresolved = new StringBuilder();
+          } else {
+            unresolved.append(", ");
+          }
+          // list indices start at 1 in the blocks.
+          unresolved.append(i + 1);
+        }
+      }
+      if (unresolved != null) {
+        // reported without throwing, so the rest of the components are still shown.
+        reportError("Couldn't get the views of the components at: " + unresolved + ", they were skipped.");
+      }
+      return views;
+    }
+
     /**
      * Returns the View of the given component. This function is useful, since it would also work with kodular's floatingActionButton although it's a non-visible component.
+     * The getView method of each component class is looked up only once.
      * 
-     * @return the view or an empty view if it fails to get the given component view
+     * @return the view or null if it fails to get the given component view
      */
     private View getView(Object comp) {
+      if (comp instanceof AndroidViewComponent) {
+        return ((AndroidViewComponent) comp).getView();
+      }
       if (!(comp instanceof Component)) {
-        // to prevent NPEs
-        return new View(context);
+        return null;
+      }
+      Class<?> type = comp.getClass();
+      Method accessor;
+      if (VIEW_ACCESSORS.containsKey(type)) {
+        accessor = VIEW_ACCESSORS.get(type);
+      } else {
+        accessor = null;
+        try {
+          Method method = type.getMethod("getView");
+          if (View.class.isAssignableFrom(method.getReturnType())) {
+            accessor = method;
+          }
+        } catch (NoSuchMethodException e) {
+          // the component has no view.
+        }
+        VIEW_ACCESSORS.put(type, accessor);
+      }
+      if (accessor == null) {
+        return null;
       }
       try {
-        Method mMethod = comp.getClass().getMethod("getView");
-        View mComponent = (View) mMethod.invoke(comp);
-        return mComponent;
+        return (View) accessor.invoke(comp);
       } catch (Exception e) {
-        e.printStackTrace();
-        // to prevent NPEs
-        return new View(context);
+        return null;
       }
     }
 }
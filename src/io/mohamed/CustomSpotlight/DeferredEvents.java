@@ -0,0 +1,92 @@
+// -*- mode: java; c-basic-offset: 2; -*-
+// Released under the GNU General Public License v3.0
+// https://www.gnu.org/licenses/gpl-3.0.en.html
+
+package io.mohamed.CustomSpotlight;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import com.google.appinventor.components.runtime.Component;
+import com.google.appinventor.components.runtime.EventDispatcher;
+
+import java.util.ArrayDeque;
+
+/**
+ * Dispatches a component's events after the current frame, instead of from the animation callbacks that fire
+ * them, so the event handlers never delay the frame. The events are dispatched in the order they were posted,
+ * each one exactly once.
+ */
+class DeferredEvents implements Runnable {
+    private static class Event {
+      private final String name;
+      private final Object[] args;
+
+      Event(String name, Object[] args) {
+        this.name = name;
+        this.args = args;
+      }
+    }
+
+    private final Component component;
+    // the frame is drawn by the message that runs the animation callbacks, so a posted message runs after it.
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final ArrayDeque<Event> pending = new ArrayDeque<>();
+    private boolean scheduled = false;
+
+    DeferredEvents(Component component) {
+      this.component = component;
+    }
+
+    /**
+     * Queues the given event, it's dispatched after the events that were posted before it.
+     *
+     * @param name the event name
+     * @param args the event arguments
+     */
+    void post(String name, Object... args) {
+      pending.add(new Event(name, args));
+      schedule();
+    }
+
+    /**
+     * Returns whether there are events waiting to be dispatched.
+     */
+    boolean hasPending() {
+      return !pending.isEmpty();
+    }
+
+    /**
+     * Dispatches the waiting events right away.
+     */
+    void flush() {
+      handler.removeCallbacks(this);
+      scheduled = false;
+      run();
+    }
+
+    @Override
+    public void run() {
+      // the events posted by the handlers are dispatched by this run, in order.
+      scheduled = true;
+      try {
+        Event event;
+        while ((event = pending.poll()) != null) {
+          EventDispatcher.dispatchEvent(component, event.name, event.args);
+        }
+      } finally {
+        scheduled = false;
+        if (!pending.isEmpty()) {
+          // a handler failed, the events after it are still dispatched.
+          schedule();
+        }
+      }
+    }
+
+    private void schedule() {
+      if (!scheduled) {
+        scheduled = true;
+        handler.post(this);
+      }
+    }
+}
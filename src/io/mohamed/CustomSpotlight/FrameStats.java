@@ -0,0 +1,147 @@
+// -*- mode: java; c-basic-offset: 2; -*-
+// Released under the GNU General Public License v3.0
+// https://www.gnu.org/licenses/gpl-3.0.en.html
+
+package io.mohamed.CustomSpotlight;
+
+import android.app.Activity;
+import android.view.Choreographer;
+
+import com.google.appinventor.components.runtime.util.YailList;
+
+import java.util.Arrays;
+
+/**
+ * Records the duration of the frames drawn while a spotlight animates. The frame callback is only posted while the
+ * overlay changes, so an idle spotlight doesn't wake the UI thread up, and its idle frames aren't counted. The
+ * durations are kept in a fixed size ring buffer, so recording a frame never allocates.
+ */
+class FrameStats implements Choreographer.FrameCallback, SpotlightOverlay.FrameObserver {
+    private static final int CAPACITY = 1024;
+    // a frame is janky if it took longer than one and a half refresh intervals.
+    private static final float JANK_FACTOR = 1.5f;
+
+    private final long[] durations = new long[CAPACITY];
+    private final long[] sorted = new long[CAPACITY];
+    private final long jankThreshold;
+    private boolean recording = false;
+    private boolean posted = false;
+    private boolean changed = false;
+    private long lastFrameTime;
+    private int frameCount;
+    private int jankyFrames;
+
+    /**
+     * Creates a recorder for the frames of the given activity's display.
+     *
+     * @param context the activity
+     */
+    FrameStats(Activity context) {
+      float refreshRate = context.getWindowManager().getDefaultDisplay().getRefreshRate();
+      if (refreshRate <= 0) {
+        refreshRate = 60;
+      }
+      jankThreshold = (long) (JANK_FACTOR * 1000000000L / refreshRate);
+    }
+
+    /**
+     * Starts recording from the next frame the overlay changes in, dropping the frames recorded before.
+     */
+    void start() {
+      frameCount = 0;
+      jankyFrames = 0;
+      lastFrameTime = 0;
+      recording = true;
+    }
+
+    /**
+     * Called when the overlay changes, the frames are recorded for as long as the overlay keeps changing.
+     */
+    @Override
+    public void onFrame() {
+      if (!recording) {
+        return;
+      }
+      changed = true;
+      if (!posted) {
+        posted = true;
+        Choreographer.getInstance().postFrameCallback(this);
+      }
+    }
+
+    /**
+     * Stops recording.
+     *
+     * @return true if the recorder was recording
+     */
+    boolean stop() {
+      if (!recording) {
+        return false;
+      }
+      recording = false;
+      posted = false;
+      changed = false;
+      Choreographer.getInstance().removeFrameCallback(this);
+      return true;
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+      posted = false;
+      if (!recording) {
+        return;
+      }
+      if (lastFrameTime != 0) {
+        long duration = frameTimeNanos - lastFrameTime;
+        durations[frameCount % CAPACITY] = duration;
+        frameCount++;
+        if (duration > jankThreshold) {
+          jankyFrames++;
+        }
+      }
+      if (!changed) {
+        // the overlay is idle, the time until it changes again isn't a frame.
+        lastFrameTime = 0;
+        return;
+      }
+      changed = false;
+      lastFrameTime = frameTimeNanos;
+      posted = true;
+      Choreographer.getInstance().postFrameCallback(this);
+    }
+
+    /**
+     * Returns the summary of the recorded frames, the percentiles only cover the last frames that fit in the
+     * buffer.
+     *
+     * @return a list of pairs of the frame count, the janky frame count, and the 50th, 95th and 99th percentile
+     * frame times in milliseconds
+     */
+    YailList summary() {
+      int size = Math.min(frameCount, CAPACITY);
+      System.arraycopy(durations, 0, sorted, 0, size);
+      Arrays.sort(sorted, 0, size);
+      return YailList.makeList(new Object[] {
+        pair("frames", frameCount),
+        pair("jankyFrames", jankyFrames),
+        pair("p50", percentile(size, 50)),
+        pair("p95", percentile(size, 95)),
+        pair("p99", percentile(size, 99))
+      });
+    }
+
+    /**
+     * Returns the given percentile of the sorted frame times, in milliseconds.
+     */
+    private double percentile(int size, int percentile) {
+      if (size == 0) {
+        return 0;
+      }
+      int index = (int) Math.ceil(percentile / 100.0 * size) - 1;
+      return sorted[Math.max(index, 0)] / 1000000.0;
+    }
+
+    private static YailList pair(String key, Object value) {
+      return YailList.makeList(new Object[] {key, value});
+    }
+}
@@ -0,0 +1,100 @@
+// -*- mode: java; c-basic-offset: 2; -*-
+// Released under the GNU General Public License v3.0
+// https://www.gnu.org/licenses/gpl-3.0.en.html
+
+package io.mohamed.CustomSpotlight;
+
+import android.graphics.PointF;
+import android.view.View;
+
+import com.takusemba.spotlight.Target;
+
+/**
+ * A target that highlights several points at once, all the holes are cut in the same mask pass and are opened
+ * and closed by the same animation. The title and description are shown around the whole group.
+ */
+class GroupTarget implements Target {
+    private final Target textTarget;
+    private final View[] components;
+    private final float[] holes;
+    private final float radius;
+    private final PointF point = new PointF();
+    private final float builtY;
+    private final int[] location = new int[2];
+
+    /**
+     * Creates a group target.
+     *
+     * @param textTarget the target whose views are shown, placed around the bounds of the group
+     * @param components the highlighted component of each hole
+     * @param holes the x, y and radius of each hole, one after the other
+     */
+    GroupTarget(Target textTarget, View[] components, float[] holes) {
+      this.textTarget = textTarget;
+      this.components = components;
+      this.holes = holes;
+      float largest = 0;
+      for (int i = 2; i < holes.length; i += 3) {
+        largest = Math.max(largest, holes[i]);
+      }
+      radius = largest;
+      PointF built = textTarget.getPoint();
+      point.set(built.x, built.y);
+      builtY = built.y;
+    }
+
+    /**
+     * Returns the holes of the group.
+     *
+     * @return the x, y and radius of each hole, one after the other
+     */
+    float[] getHoles() {
+      return holes;
+    }
+
+    @Override
+    public PointF getPoint() {
+      return point;
+    }
+
+    /**
+     * Returns the radius of the largest hole, the other holes are scaled relative to it while animating.
+     */
+    @Override
+    public float getRadius() {
+      return radius;
+    }
+
+    @Override
+    public View getView() {
+      return textTarget.getView();
+    }
+
+    /**
+     * Moves each hole to its component's current center, and moves the text with the center of the group's bounds.
+     * The text stays on the side of the group the target builder placed it on.
+     */
+    @Override
+    public void recalculate() {
+      float top = Float.MAX_VALUE;
+      float bottom = -Float.MAX_VALUE;
+      float left = Float.MAX_VALUE;
+      float right = -Float.MAX_VALUE;
+      for (int i = 0; i < components.length; i++) {
+        components[i].getLocationInWindow(location);
+        float x = location[0] + components[i].getWidth() / 2f;
+        float y = location[1] + components[i].getHeight() / 2f;
+        holes[i * 3] = x;
+        holes[i * 3 + 1] = y;
+        left = Math.min(left, x - holes[i * 3 + 2]);
+        top = Math.min(top, y - holes[i * 3 + 2]);
+        right = Math.max(right, x + holes[i * 3 + 2]);
+        bottom = Math.max(bottom, y + holes[i * 3 + 2]);
+      }
+      point.set((left + right) / 2, (top + bottom) / 2);
+      View view = textTarget.getView();
+      if (view != null) {
+        view.setTranslationY(point.y - builtY);
+      }
+    }
+}
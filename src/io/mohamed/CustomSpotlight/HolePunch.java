@@ -0,0 +1,165 @@
+// -*- mode: java; c-basic-offset: 2; -*-
+// Released under the GNU General Public License v3.0
+// https://www.gnu.org/licenses/gpl-3.0.en.html
+
+package io.mohamed.CustomSpotlight;
+
+import android.animation.Animator;
+import android.animation.TimeInterpolator;
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.graphics.PorterDuff;
+import android.graphics.PorterDuffXfermode;
+import android.graphics.RectF;
+import android.view.View;
+import android.view.ViewAnimationUtils;
+import android.view.ViewGroup;
+
+/**
+ * Clears the spotlight holes out of the overlay's layer, only used on API 21 and above by the full rendering
+ * profile. The punch is only as large as the holes, and the overlay's mask is drawn once per target, so an
+ * animation frame only changes the punch: a circle or a shape is opened and closed by scaling the punch, which
+ * doesn't draw anything again, or by a circular reveal animated by the render thread, and only the group's few
+ * circles are drawn again while they grow.
+ */
+class HolePunch extends View {
+    // the anti-aliased edges are drawn up to a pixel outside of the holes.
+    private static final int EDGE = 1;
+
+    private final Paint paint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final RectF bounds = new RectF();
+    private float radius;
+    private Path shape;
+    private float[] holes;
+    private float holesScale = 1;
+    private int width;
+    private int height;
+
+    HolePunch(Context context) {
+      super(context);
+      paint.setXfermode(new PorterDuffXfermode(PorterDuff.Mode.CLEAR));
+      setVisibility(View.INVISIBLE);
+    }
+
+    /**
+     * Punches a circle with the given full radius.
+     */
+    void setCircle(float radius) {
+      this.radius = radius;
+      shape = null;
+      holes = null;
+      int size = 2 * ((int) Math.ceil(radius) + EDGE);
+      resize(size, size);
+    }
+
+    /**
+     * Punches the given shape.
+     *
+     * @param shape the shape, centered at (0, 0) at its full size
+     */
+    void setShape(Path shape) {
+      this.shape = shape;
+      holes = null;
+      shape.computeBounds(bounds, true);
+      // the punch is centered on the shape's origin, so it scales around it.
+      float halfWidth = Math.max(-bounds.left, bounds.right);
+      float halfHeight = Math.max(-bounds.top, bounds.bottom);
+      resize(2 * ((int) Math.ceil(halfWidth) + EDGE), 2 * ((int) Math.ceil(halfHeight) + EDGE));
+    }
+
+    /**
+     * Punches the given group of circles, the punch covers the bounds of the whole group.
+     *
+     * @param holes the x, y and radius of each hole, one after the other, in the overlay's coordinates
+     */
+    void setHoles(float[] holes) {
+      this.holes = holes;
+      shape = null;
+      float left = Float.MAX_VALUE;
+      float top = Float.MAX_VALUE;
+      float right = -Float.MAX_VALUE;
+      float bottom = -Float.MAX_VALUE;
+      for (int i = 0; i < holes.length; i += 3) {
+        left = Math.min(left, holes[i] - holes[i + 2]);
+        top = Math.min(top, holes[i + 1] - holes[i + 2]);
+        right = Math.max(right, holes[i] + holes[i + 2]);
+        bottom = Math.max(bottom, holes[i + 1] + holes[i + 2]);
+      }
+      bounds.set((float) Math.floor(left) - EDGE, (float) Math.floor(top) - EDGE, (float) Math.ceil(right) + EDGE,
+          (float) Math.ceil(bottom) + EDGE);
+      resize((int) bounds.width(), (int) bounds.height());
+      setTranslationX(bounds.left);
+      setTranslationY(bounds.top);
+    }
+
+    /**
+     * Moves the circle or the shape to the given point, the animation isn't restarted.
+     */
+    void moveTo(float x, float y) {
+      setTranslationX(x - width / 2f);
+      setTranslationY(y - height / 2f);
+    }
+
+    /**
+     * Sets the size of the holes, relative to their full size. A circle or a shape is scaled by the render
+     * thread, the group's circles are drawn again at their new radii, each around its own center.
+     */
+    void setScale(float scale) {
+      if (holes == null) {
+        setScaleX(scale);
+        setScaleY(scale);
+      } else if (holesScale != scale) {
+        holesScale = scale;
+        invalidate();
+      }
+    }
+
+    /**
+     * Creates the animation that opens or closes the circle.
+     *
+     * @param from the radius the animation starts from
+     * @param to the radius the animation ends at
+     * @return the animation, which isn't started yet
+     */
+    Animator reveal(float from, float to, long duration, TimeInterpolator animation) {
+      setScale(1f);
+      Animator reveal = ViewAnimationUtils.createCircularReveal(this, width / 2, height / 2, from, to);
+      reveal.setDuration(duration);
+      reveal.setInterpolator(animation);
+      return reveal;
+    }
+
+    private void resize(int width, int height) {
+      this.width = width;
+      this.height = height;
+      holesScale = 1;
+      setScaleX(1f);
+      setScaleY(1f);
+      ViewGroup.LayoutParams params = getLayoutParams();
+      if (params.width != width || params.height != height) {
+        params.width = width;
+        params.height = height;
+        setLayoutParams(params);
+      }
+      invalidate();
+      setVisibility(View.VISIBLE);
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+      if (holes != null) {
+        for (int i = 0; i < holes.length; i += 3) {
+          canvas.drawCircle(holes[i] - bounds.left, holes[i + 1] - bounds.top, holes[i + 2] * holesScale, paint);
+        }
+        return;
+      }
+      canvas.translate(width / 2f, height / 2f);
+      if (shape != null) {
+        canvas.drawPath(shape, paint);
+      } else {
+        canvas.drawCircle(0, 0, radius, paint);
+      }
+    }
+}
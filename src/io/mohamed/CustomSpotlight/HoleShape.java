@@ -0,0 +1,52 @@
+// -*- mode: java; c-basic-offset: 2; -*-
+// Released under the GNU General Public License v3.0
+// https://www.gnu.org/licenses/gpl-3.0.en.html
+
+package io.mohamed.CustomSpotlight;
+
+import android.graphics.Path;
+import android.graphics.RectF;
+
+/**
+ * The shapes a spotlight hole can have, other than the default circle. A shape is built when its target is
+ * created, and again when the target's component is resized, centered at (0, 0) at its full size, and is scaled
+ * and moved to the target's point while it's drawn.
+ */
+final class HoleShape {
+    static final String CIRCLE = "Circle";
+    static final String ROUNDED_RECTANGLE = "RoundedRectangle";
+    static final String PILL = "Pill";
+
+    private HoleShape() {
+    }
+
+    /**
+     * Returns whether the given shape name is one of the supported shapes.
+     */
+    static boolean isValid(String shape) {
+      return CIRCLE.equals(shape) || ROUNDED_RECTANGLE.equals(shape) || PILL.equals(shape);
+    }
+
+    /**
+     * Builds the path of the given shape.
+     *
+     * @param shape the shape name
+     * @param width the full width of the shape, in pixels
+     * @param height the full height of the shape, in pixels
+     * @return the shape's path, or null for a circle, which the overlay draws directly
+     */
+    static Path create(String shape, float width, float height) {
+      float cornerRadius;
+      if (ROUNDED_RECTANGLE.equals(shape)) {
+        cornerRadius = Math.min(width, height) / 4;
+      } else if (PILL.equals(shape)) {
+        cornerRadius = Math.min(width, height) / 2;
+      } else {
+        return null;
+      }
+      Path path = new Path();
+      path.addRoundRect(new RectF(-width / 2, -height / 2, width / 2, height / 2), cornerRadius, cornerRadius,
+          Path.Direction.CW);
+      return path;
+    }
+}
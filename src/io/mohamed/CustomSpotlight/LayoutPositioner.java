@@ -0,0 +1,97 @@
+// -*- mode: java; c-basic-offset: 2; -*-
+// Released under the GNU General Public License v3.0
+// https://www.gnu.org/licenses/gpl-3.0.en.html
+
+package io.mohamed.CustomSpotlight;
+
+import android.os.Build;
+import android.view.View;
+import android.view.ViewTreeObserver;
+
+import com.takusemba.spotlight.Target;
+
+/**
+ * Moves the custom layout of each target to its position, once the layout is laid out inside the spotlight view.
+ * Each layout is positioned only once, when the spotlight moves to its target.
+ */
+class LayoutPositioner implements ViewTreeObserver.OnGlobalLayoutListener {
+    private final Target[] targets;
+    private final View[] layouts;
+    private final float[] xPositions;
+    private final float[] yPositions;
+    private SpotlightTour tour;
+    private View spotlightView;
+    private ViewTreeObserver observer;
+    private Target positioned;
+    private int cursor = 0;
+
+    /**
+     * Creates a positioner for the given targets.
+     *
+     * @param targets the targets, in the order they're shown
+     * @param layouts the custom layout of each target
+     * @param xPositions the x position of each layout, in pixels
+     * @param yPositions the y position of each layout, in pixels
+     */
+    LayoutPositioner(Target[] targets, View[] layouts, float[] xPositions, float[] yPositions) {
+      this.targets = targets;
+      this.layouts = layouts;
+      this.xPositions = xPositions;
+      this.yPositions = yPositions;
+    }
+
+    /**
+     * Starts positioning the layouts shown by the given tour.
+     *
+     * @param tour the started tour
+     */
+    void attach(SpotlightTour tour) {
+      this.tour = tour;
+      spotlightView = tour.getOverlay();
+      // keep the observer, since the view's observer changes once the view is detached from the window.
+      observer = spotlightView.getViewTreeObserver();
+      observer.addOnGlobalLayoutListener(this);
+    }
+
+    /**
+     * Stops listening for layout passes, should be called when the spotlight ends. The positioner can be attached
+     * again once the tour is shown again.
+     */
+    @SuppressWarnings("deprecation")
+    void detach() {
+      if (observer != null && observer.isAlive()) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN) {
+          observer.removeOnGlobalLayoutListener(this);
+        } else {
+          observer.removeGlobalOnLayoutListener(this);
+        }
+      }
+      observer = null;
+      tour = null;
+      spotlightView = null;
+      positioned = null;
+      // the tour starts from its first target when it's shown again.
+      cursor = 0;
+    }
+
+    @Override
+    public void onGlobalLayout() {
+      Target current = tour.getCurrentTarget();
+      if (current == null || current == positioned) {
+        return;
+      }
+      // targets are shown in order, so the current target is never before the cursor.
+      int index = cursor;
+      while (index < targets.length && targets[index] != current) {
+        index++;
+      }
+      if (index == targets.length || layouts[index].getParent() != spotlightView) {
+        // the layout is not laid out in the spotlight view yet.
+        return;
+      }
+      layouts[index].setY(yPositions[index]);
+      layouts[index].setX(xPositions[index]);
+      positioned = current;
+      cursor = index;
+    }
+}
@@ -0,0 +1,121 @@
+// -*- mode: java; c-basic-offset: 2; -*-
+// Released under the GNU General Public License v3.0
+// https://www.gnu.org/licenses/gpl-3.0.en.html
+
+package io.mohamed.CustomSpotlight;
+
+import android.graphics.PointF;
+import android.os.Looper;
+import android.os.MessageQueue;
+import android.view.View;
+
+import com.takusemba.spotlight.Target;
+
+/**
+ * A target that builds its views only when the spotlight reaches it, the next target of the tour is built
+ * while the UI thread is idle, so that it's ready when the current one closes.
+ */
+class LazyTarget implements Target {
+    /**
+     * Builds the actual target.
+     */
+    interface Factory {
+      Target build();
+    }
+
+    private final Factory factory;
+    private Target target;
+    private LazyTarget next;
+    // builds the target ahead of time, until the target is released.
+    private MessageQueue.IdleHandler prefetcher;
+
+    LazyTarget(Factory factory) {
+      this.factory = factory;
+    }
+
+    /**
+     * Sets the target that comes after this one in the tour.
+     *
+     * @param next the next target
+     */
+    void setNext(LazyTarget next) {
+      this.next = next;
+    }
+
+    /**
+     * Releases the built target, so that its views can be garbage collected, and cancels building it ahead of
+     * time, since the tour is over.
+     */
+    void release() {
+      if (prefetcher != null) {
+        Looper.myQueue().removeIdleHandler(prefetcher);
+        prefetcher = null;
+      }
+      target = null;
+    }
+
+    /**
+     * Returns whether the target's views were built.
+     */
+    boolean isBuilt() {
+      return target != null;
+    }
+
+    @Override
+    public PointF getPoint() {
+      return materialize().getPoint();
+    }
+
+    @Override
+    public float getRadius() {
+      return materialize().getRadius();
+    }
+
+    @Override
+    public View getView() {
+      return materialize().getView();
+    }
+
+    /**
+     * Does nothing, the target is built at its current position when the spotlight reaches it.
+     */
+    @Override
+    public void recalculate() {
+    }
+
+    /**
+     * Builds the target if it's not built yet, and schedules building the next one.
+     *
+     * @return the built target
+     */
+    private Target materialize() {
+      if (target == null) {
+        target = factory.build();
+        if (next != null) {
+          next.schedulePrefetch();
+        }
+      }
+      return target;
+    }
+
+    /**
+     * Schedules building the target ahead of time the next time the UI thread is idle, without scheduling the one
+     * after it.
+     */
+    private void schedulePrefetch() {
+      if (target != null || prefetcher != null) {
+        return;
+      }
+      prefetcher = new MessageQueue.IdleHandler() {
+        @Override
+        public boolean queueIdle() {
+          prefetcher = null;
+          if (target == null) {
+            target = factory.build();
+          }
+          return false;
+        }
+      };
+      Looper.myQueue().addIdleHandler(prefetcher);
+    }
+}
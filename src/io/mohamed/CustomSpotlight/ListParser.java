@@ -0,0 +1,91 @@
+// -*- mode: java; c-basic-offset: 2; -*-
+// Released under the GNU General Public License v3.0
+// https://www.gnu.org/licenses/gpl-3.0.en.html
+
+package io.mohamed.CustomSpotlight;
+
+/**
+ * Converts the parallel lists given to the multiple spotlights blocks into columns of primitives, in a single
+ * pass over each list. The lists are validated before any target is built, so an invalid list fails the whole
+ * block instead of failing partway through. The class doesn't depend on Android or App Inventor, so it can be
+ * compiled and measured on its own, away from a device.
+ */
+final class ListParser {
+    private ListParser() {
+    }
+
+    /**
+     * Checks that all the given lists have the same number of items.
+     *
+     * @param names the name of each list, used in the error message
+     * @param lengths the number of items of each list
+     * @throws IllegalArgumentException if a list has a different number of items than the first one
+     */
+    static void checkLengths(String[] names, int... lengths) {
+      for (int i = 1; i < lengths.length; i++) {
+        if (lengths[i] != lengths[0]) {
+          throw new IllegalArgumentException("The " + names[i] + " list has " + lengths[i] + " items, but the "
+            + names[0] + " list has " + lengths[0] + " items.");
+        }
+      }
+    }
+
+    /**
+     * Parses the given list items into floats, numbers are read directly and only the other items are parsed
+     * from their text.
+     *
+     * @param name the name of the list, used in the error message
+     * @param items the list items
+     * @return the parsed floats
+     * @throws IllegalArgumentException if an item is not a number
+     */
+    static float[] parseFloats(String name, Object[] items) {
+      float[] floats = new float[items.length];
+      for (int i = 0; i < items.length; i++) {
+        floats[i] = parseFloat(name, i, items[i]);
+      }
+      return floats;
+    }
+
+    /**
+     * Parses the given radii, failing early the same way the target builder does.
+     *
+     * @param items the list items
+     * @return the parsed radii
+     * @throws IllegalArgumentException if an item is not a number, or is not greater than 0
+     */
+    static float[] parseRadii(Object[] items) {
+      float[] radii = parseFloats("radii", items);
+      for (int i = 0; i < radii.length; i++) {
+        if (radii[i] <= 0) {
+          throw new IllegalArgumentException("Item " + (i + 1) + " of the radii list must be greater than 0.");
+        }
+      }
+      return radii;
+    }
+
+    /**
+     * Converts the given list items into strings.
+     *
+     * @return the items' text
+     */
+    static String[] parseStrings(Object[] items) {
+      String[] strings = new String[items.length];
+      for (int i = 0; i < items.length; i++) {
+        strings[i] = items[i].toString();
+      }
+      return strings;
+    }
+
+    private static float parseFloat(String name, int index, Object item) {
+      if (item instanceof Number) {
+        return ((Number) item).floatValue();
+      }
+      try {
+        return Float.parseFloat(item.toString());
+      } catch (NumberFormatException e) {
+        throw new IllegalArgumentException("Item " + (index + 1) + " of the " + name + " list is not a number: "
+          + item);
+      }
+    }
+}
@@ -0,0 +1,135 @@
+// -*- mode: java; c-basic-offset: 2; -*-
+// Released under the GNU General Public License v3.0
+// https://www.gnu.org/licenses/gpl-3.0.en.html
+
+package io.mohamed.CustomSpotlight;
+
+import android.os.Looper;
+import android.os.MessageQueue;
+import android.view.View;
+import android.view.animation.DecelerateInterpolator;
+
+import com.takusemba.spotlight.OnSpotlightEndedListener;
+import com.takusemba.spotlight.OnSpotlightStartedListener;
+import com.takusemba.spotlight.OnTargetClosedListener;
+import com.takusemba.spotlight.Target;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+
+/**
+ * A tour whose targets and listeners are built once, while the UI thread is idle, so that it can be started
+ * instantly, and as many times as needed.
+ */
+class PreparedTour implements MessageQueue.IdleHandler {
+    /**
+     * Builds the targets of the tour.
+     */
+    interface Preparer {
+      void prepare(PreparedTour tour);
+    }
+
+    private final String id;
+    private final SpotlightTour tour;
+    private final ArrayList<Target> targets = new ArrayList<>();
+    private final IdentityHashMap<Target, String> idsByTarget = new IdentityHashMap<>();
+    private Preparer preparer;
+    private View decorView;
+
+    PreparedTour(String id, long duration, Preparer preparer) {
+      this.id = id;
+      tour = new SpotlightTour()
+        .setDuration(duration)
+        .setAnimation(new DecelerateInterpolator(2f));
+      this.preparer = preparer;
+    }
+
+    /**
+     * Schedules preparing the tour the first time the UI thread is idle once the screen is laid out, the
+     * components have no size before that.
+     *
+     * @param decorView the decor view of the screen the tour is shown on
+     */
+    void schedule(View decorView) {
+      this.decorView = decorView;
+      Looper.myQueue().addIdleHandler(this);
+    }
+
+    @Override
+    public boolean queueIdle() {
+      if (decorView.getWidth() == 0) {
+        // the screen isn't laid out yet.
+        return true;
+      }
+      decorView = null;
+      prepare();
+      return false;
+    }
+
+    /**
+     * Builds the tour's targets, if they were not built yet.
+     */
+    void prepare() {
+      if (preparer != null) {
+        Preparer current = preparer;
+        preparer = null;
+        current.prepare(this);
+        tour.setTargets(targets.toArray(new Target[targets.size()]));
+      }
+    }
+
+    /**
+     * Adds a built target to the tour.
+     *
+     * @param target the target
+     * @param targetId the id of the target, used when calling the TargetClosed event
+     */
+    void addTarget(Target target, String targetId) {
+      targets.add(target);
+      idsByTarget.put(target, targetId);
+    }
+
+    /**
+     * Returns the id of the given target.
+     *
+     * @return the target id, or an empty string if the target is not part of this tour
+     */
+    String getTargetId(Target target) {
+      String targetId = idsByTarget.get(target);
+      return targetId == null ? "" : targetId;
+    }
+
+    void setListeners(OnSpotlightStartedListener startedListener, OnSpotlightEndedListener endedListener,
+        OnTargetClosedListener targetClosedListener) {
+      tour.setOnSpotlightStartedListener(startedListener)
+        .setOnSpotlightEndedListener(endedListener)
+        .setOnTargetClosedListener(targetClosedListener);
+    }
+
+    /**
+     * Returns the id the tour was prepared with, the queued tours are merged by this id.
+     */
+    String getId() {
+      return id;
+    }
+
+    /**
+     * Returns the tour, ready to be started, preparing it first if the UI thread was not idle since it was
+     * created. The targets prepared earlier are moved to their components' current positions, which may have
+     * changed since.
+     *
+     * @return the prepared tour
+     */
+    SpotlightTour getTour() {
+      Looper.myQueue().removeIdleHandler(this);
+      decorView = null;
+      if (preparer == null) {
+        for (Target target : targets) {
+          target.recalculate();
+        }
+      } else {
+        prepare();
+      }
+      return tour;
+    }
+}
@@ -0,0 +1,65 @@
+// -*- mode: java; c-basic-offset: 2; -*-
+// Released under the GNU General Public License v3.0
+// https://www.gnu.org/licenses/gpl-3.0.en.html
+
+package io.mohamed.CustomSpotlight;
+
+import android.app.Activity;
+import android.app.ActivityManager;
+import android.content.Context;
+import android.os.Build;
+
+/**
+ * The ways a spotlight can be rendered. The full profile animates the mask and the holes, the lite profile shows
+ * them at once, without animations or offscreen layers, for the devices that can't keep up with the animations.
+ */
+final class RenderingProfile {
+    static final String AUTO = "Auto";
+    static final String FULL = "Full";
+    static final String LITE = "Lite";
+
+    // the devices below this memory class, in megabytes, are treated as low end unless their display runs faster
+    // than 60Hz.
+    private static final int LOW_MEMORY_CLASS = 128;
+    private static final float BASE_REFRESH_RATE = 60;
+
+    private static Boolean lowEndDevice;
+
+    private RenderingProfile() {
+    }
+
+    /**
+     * Returns whether the given profile name is one of the supported profiles.
+     */
+    static boolean isValid(String profile) {
+      return AUTO.equals(profile) || FULL.equals(profile) || LITE.equals(profile);
+    }
+
+    /**
+     * Returns whether the given profile renders spotlights in the lite profile on this device.
+     *
+     * @param profile the profile name
+     * @param context the activity
+     * @return true to use the lite profile
+     */
+    static boolean isLite(String profile, Activity context) {
+      if (AUTO.equals(profile)) {
+        return isLowEndDevice(context);
+      }
+      return LITE.equals(profile);
+    }
+
+    /**
+     * Returns whether the device is a low end device, the result is computed once per process.
+     */
+    private static boolean isLowEndDevice(Activity context) {
+      if (lowEndDevice == null) {
+        ActivityManager activityManager = (ActivityManager) context.getSystemService(Context.ACTIVITY_SERVICE);
+        boolean lowRam = Build.VERSION.SDK_INT >= Build.VERSION_CODES.KITKAT && activityManager.isLowRamDevice();
+        float refreshRate = context.getWindowManager().getDefaultDisplay().getRefreshRate();
+        lowEndDevice = lowRam
+          || (activityManager.getMemoryClass() < LOW_MEMORY_CLASS && refreshRate <= BASE_REFRESH_RATE);
+      }
+      return lowEndDevice;
+    }
+}
@@ -0,0 +1,704 @@
+// -*- mode: java; c-basic-offset: 2; -*-
+// Released under the GNU General Public License v3.0
+// https://www.gnu.org/licenses/gpl-3.0.en.html
+
+package io.mohamed.CustomSpotlight;
+
+import android.animation.Animator;
+import android.animation.AnimatorListenerAdapter;
+import android.animation.ObjectAnimator;
+import android.animation.TimeInterpolator;
+import android.animation.ValueAnimator;
+import android.app.Activity;
+import android.graphics.Canvas;
+import android.graphics.Matrix;
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.graphics.PointF;
+import android.graphics.PorterDuff;
+import android.graphics.PorterDuffXfermode;
+import android.graphics.Region;
+import android.os.Build;
+import android.view.View;
+import android.view.ViewGroup;
+import android.view.ViewTreeObserver;
+import android.widget.FrameLayout;
+
+/**
+ * The full screen mask that the spotlights are drawn on. Each session has a single overlay, which is added to
+ * the window's decor view the first time a spotlight is shown, and is kept hidden between spotlights, so that
+ * showing a spotlight again doesn't allocate a new view, paints or animators.
+ */
+class SpotlightOverlay extends FrameLayout {
+    /**
+     * Receives the overlay's state changes, implemented by the tour that currently owns the overlay.
+     */
+    interface Listener {
+      void onStarted();
+
+      void onShown();
+
+      void onTargetClicked();
+
+      void onTargetClosed();
+
+      void onHidden();
+
+      void onResized();
+    }
+
+    /**
+     * Notified each time the overlay changes, while the overlay animates it's notified once per frame.
+     */
+    interface FrameObserver {
+      void onFrame();
+    }
+
+    private static final long FADE_DURATION = 500;
+    // rotating or resizing the window changes the size more than once, so the targets are only recalculated once
+    // the size settles.
+    private static final long RESIZE_DELAY = 150;
+    // the warm up frame is drawn at the lowest alpha that is still rendered, so it can't be seen.
+    private static final float WARM_UP_ALPHA = 1 / 255f;
+    private static final float WARM_UP_RADIUS = 8;
+
+    private final Paint paint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint holePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Path mask = new Path();
+    private final Path holesPath = new Path();
+    private final Path hole = new Path();
+    private final PointF point = new PointF();
+    private final Matrix shapeMatrix = new Matrix();
+    private final ValueAnimator animator;
+    private final ObjectAnimator fadeAnimator;
+    private final HolePunch punch;
+    private final CompletionListener revealListener = new CompletionListener() {
+      @Override
+      void onCompleted() {
+        if (closing) {
+          punch.setVisibility(View.INVISIBLE);
+          if (listener != null) {
+            listener.onTargetClosed();
+          }
+        }
+      }
+    };
+    private final Runnable resizeCallback = new Runnable() {
+      @Override
+      public void run() {
+        if (listener != null) {
+          listener.onResized();
+        }
+      }
+    };
+    private Listener listener;
+    private int maskColor;
+    private float radius = 0;
+    private float[] holes;
+    private float holesRadius;
+    private Path shape;
+    private float targetRadius;
+    private boolean closing = false;
+    private boolean fadingIn = false;
+    private boolean revealEnabled = false;
+    private boolean liteRendering = false;
+    // whether the punch cuts the holes, and whether it reveals the circle on the render thread.
+    private boolean punching = false;
+    private boolean revealing = false;
+    private Animator reveal;
+    private FrameObserver frameObserver;
+    // the overlay's touch and focus state, restored once the warm up frame is drawn.
+    private boolean clickableBeforeWarmUp;
+    private boolean focusableBeforeWarmUp;
+    private int descendantFocusabilityBeforeWarmUp;
+
+    private SpotlightOverlay(Activity context) {
+      super(context);
+      bringToFront();
+      setWillNotDraw(false);
+      if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
+        // the punch is always the first child, below the target views, it's sized to the holes it cuts.
+        punch = new HolePunch(context);
+        addView(punch, new FrameLayout.LayoutParams(0, 0));
+      } else {
+        punch = null;
+      }
+      // the full profile clears the holes out of the overlay's layer, using the punch on API 21 and above, the lite
+      // profile has no layer, so it cuts them out of the mask's path instead.
+      holePaint.setXfermode(new PorterDuffXfermode(PorterDuff.Mode.CLEAR));
+      setOnClickListener(new OnClickListener() {
+        @Override
+        public void onClick(View view) {
+          if (!isAnimating() && (radius > 0 || punching) && listener != null) {
+            listener.onTargetClicked();
+          }
+        }
+      });
+      animator = ValueAnimator.ofFloat(0f, 1f);
+      animator.addUpdateListener(new ValueAnimator.AnimatorUpdateListener() {
+        @Override
+        public void onAnimationUpdate(ValueAnimator animation) {
+          radius = (Float) animation.getAnimatedValue();
+          if (punching) {
+            // the mask doesn't change, only the punch is scaled.
+            punch.setScale(radius / targetRadius);
+          } else {
+            invalidate();
+          }
+          notifyFrame();
+        }
+      });
+      animator.addListener(new CompletionListener() {
+        @Override
+        void onCompleted() {
+          if (closing && listener != null) {
+            listener.onTargetClosed();
+          }
+        }
+      });
+      fadeAnimator = ObjectAnimator.ofFloat(this, View.ALPHA, 0f, 1f);
+      fadeAnimator.setDuration(FADE_DURATION);
+      fadeAnimator.addUpdateListener(new ValueAnimator.AnimatorUpdateListener() {
+        @Override
+        public void onAnimationUpdate(ValueAnimator animation) {
+          notifyFrame();
+        }
+      });
+      fadeAnimator.addListener(new CompletionListener() {
+        @Override
+        public void onAnimationStart(Animator animation) {
+          super.onAnimationStart(animation);
+          // the layer keeps the fade to a single texture, and the holes are cleared out of it, so it's kept until
+          // the overlay is hidden.
+          if (!liteRendering) {
+            setLayerType(View.LAYER_TYPE_HARDWARE, null);
+          }
+          if (fadingIn && listener != null) {
+            listener.onStarted();
+          }
+        }
+
+        @Override
+        void onCompleted() {
+          if (fadingIn) {
+            if (listener != null) {
+              listener.onShown();
+            }
+          } else {
+            onHidden();
+          }
+        }
+      });
+    }
+
+    /**
+     * Creates a hidden overlay, and adds it to the given activity's window.
+     *
+     * @param context the activity
+     * @return the overlay
+     */
+    static SpotlightOverlay create(Activity context) {
+      ViewGroup decorView = (ViewGroup) context.getWindow().getDecorView();
+      SpotlightOverlay overlay = new SpotlightOverlay(context);
+      overlay.setVisibility(View.GONE);
+      overlay.setLayoutParams(new FrameLayout.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT,
+          ViewGroup.LayoutParams.MATCH_PARENT));
+      decorView.addView(overlay);
+      return overlay;
+    }
+
+    /**
+     * Returns whether the given listener currently owns the overlay.
+     */
+    boolean isOwnedBy(Listener owner) {
+      return listener == owner;
+    }
+
+    /**
+     * Shows the overlay for the given listener, the spotlight that was previously shown is dropped.
+     *
+     * @param owner the listener that receives the overlay's state changes
+     * @param maskColor the mask color
+     */
+    void show(Listener owner, int maskColor) {
+      listener = null;
+      animator.cancel();
+      fadeAnimator.cancel();
+      listener = owner;
+      this.maskColor = maskColor;
+      radius = 0;
+      closing = false;
+      stopPunching();
+      removeTargetViews();
+      if (liteRendering) {
+        setLayerType(View.LAYER_TYPE_NONE, null);
+      }
+      bringToFront();
+      setAlpha(0f);
+      setVisibility(View.VISIBLE);
+      fadingIn = true;
+      fadeAnimator.setFloatValues(0f, 1f);
+      fadeAnimator.start();
+    }
+
+    /**
+     * Hands the shown overlay over to the given listener without fading it out and in again. The new owner's
+     * onStarted and onShown aren't called, the owner carries on as if the overlay had just been shown.
+     *
+     * @param owner the listener that receives the overlay's state changes
+     * @param maskColor the mask color
+     */
+    void handOver(Listener owner, int maskColor) {
+      listener = null;
+      animator.cancel();
+      listener = owner;
+      this.maskColor = maskColor;
+      radius = 0;
+      closing = false;
+      stopPunching();
+      removeTargetViews();
+      setLayerType(liteRendering ? View.LAYER_TYPE_NONE : View.LAYER_TYPE_HARDWARE, null);
+      invalidate();
+    }
+
+    /**
+     * Fades the overlay out, the overlay is hidden once the animation ends.
+     */
+    void hide() {
+      animator.cancel();
+      if (reveal != null) {
+        reveal.cancel();
+      }
+      fadingIn = false;
+      fadeAnimator.setFloatValues(getAlpha(), 0f);
+      fadeAnimator.start();
+    }
+
+    /**
+     * Hides the overlay at once, without fading it out. Used when the activity is paused or destroyed, while the
+     * animations can't be seen.
+     */
+    void dismiss() {
+      animator.cancel();
+      fadeAnimator.cancel();
+      removeCallbacks(resizeCallback);
+      onHidden();
+    }
+
+    /**
+     * Draws a single frame of a spotlight that can't be seen, with a hole, the given target view, and the punch on
+     * API 21 and above. The frame creates the hardware layer, compiles the shaders and fills the text caches that
+     * the first spotlight would otherwise pay for. Does nothing while a spotlight is shown.
+     *
+     * @param sample a target view to draw in the frame, it's removed once the frame is drawn
+     */
+    void warmUp(View sample) {
+      if (listener != null || getVisibility() == View.VISIBLE) {
+        return;
+      }
+      removeTargetViews();
+      addView(sample);
+      point.set(getWidth() / 2f, getHeight() / 2f);
+      radius = WARM_UP_RADIUS;
+      holes = null;
+      shape = null;
+      if (punch != null && !liteRendering) {
+        punch.setCircle(WARM_UP_RADIUS);
+        punch.moveTo(point.x, point.y);
+      }
+      // the overlay can't be seen, so the screen below it keeps the touches and the focus.
+      clickableBeforeWarmUp = isClickable();
+      focusableBeforeWarmUp = isFocusable();
+      descendantFocusabilityBeforeWarmUp = getDescendantFocusability();
+      setClickable(false);
+      setFocusable(false);
+      setDescendantFocusability(ViewGroup.FOCUS_BLOCK_DESCENDANTS);
+      setAlpha(WARM_UP_ALPHA);
+      setVisibility(View.VISIBLE);
+      if (!liteRendering) {
+        setLayerType(View.LAYER_TYPE_HARDWARE, null);
+      }
+      final ViewTreeObserver observer = getViewTreeObserver();
+      observer.addOnPreDrawListener(new ViewTreeObserver.OnPreDrawListener() {
+        @Override
+        public boolean onPreDraw() {
+          if (observer.isAlive()) {
+            observer.removeOnPreDrawListener(this);
+          }
+          // posted from the traversal that draws the frame, so it runs once the frame is drawn.
+          post(new Runnable() {
+            @Override
+            public void run() {
+              finishWarmUp();
+            }
+          });
+          return true;
+        }
+      });
+    }
+
+    private void finishWarmUp() {
+      setClickable(clickableBeforeWarmUp);
+      setFocusable(focusableBeforeWarmUp);
+      setDescendantFocusability(descendantFocusabilityBeforeWarmUp);
+      if (punch != null && !punching) {
+        punch.setVisibility(View.INVISIBLE);
+      }
+      if (listener != null) {
+        // a spotlight was shown right after the warm up, showing it has already reset the rest of the overlay.
+        return;
+      }
+      setVisibility(View.GONE);
+      setLayerType(View.LAYER_TYPE_NONE, null);
+      removeTargetViews();
+      radius = 0;
+    }
+
+    /**
+     * Removes the hidden overlay from the activity's window, the overlay can't be shown again.
+     */
+    void detach() {
+      if (getParent() != null) {
+        ((ViewGroup) getParent()).removeView(this);
+      }
+    }
+
+    private void onHidden() {
+      Listener hidden = listener;
+      setVisibility(View.GONE);
+      removeTargetViews();
+      stopPunching();
+      setLayerType(View.LAYER_TYPE_NONE, null);
+      listener = null;
+      if (hidden != null) {
+        hidden.onHidden();
+      }
+    }
+
+    /**
+     * Shows the given target view, replacing the previous one.
+     *
+     * @param view the target view
+     */
+    void setTargetView(View view) {
+      removeTargetViews();
+      if (view.getParent() != null) {
+        ((ViewGroup) view.getParent()).removeView(view);
+      }
+      addView(view);
+    }
+
+    @Override
+    protected void onSizeChanged(int width, int height, int oldWidth, int oldHeight) {
+      super.onSizeChanged(width, height, oldWidth, oldHeight);
+      if (oldWidth != 0 && oldHeight != 0 && listener != null) {
+        removeCallbacks(resizeCallback);
+        postDelayed(resizeCallback, RESIZE_DELAY);
+      }
+    }
+
+    /**
+     * Sets the observer notified each time the overlay changes.
+     *
+     * @param observer the observer, or null
+     */
+    void setFrameObserver(FrameObserver observer) {
+      frameObserver = observer;
+    }
+
+    private void notifyFrame() {
+      if (frameObserver != null) {
+        frameObserver.onFrame();
+      }
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+      super.onDraw(canvas);
+      notifyFrame();
+      paint.setColor(maskColor);
+      if (radius <= 0 || punching) {
+        // the punch cuts the holes, so the mask is only drawn again when it changes, not on every frame.
+        canvas.drawRect(0, 0, getWidth(), getHeight(), paint);
+        return;
+      }
+      if (getLayerType() == View.LAYER_TYPE_NONE) {
+        // clearing would clear the window behind the overlay, the lite profile doesn't animate the holes, so the
+        // path is only built once per target.
+        drawMaskPath(canvas);
+        return;
+      }
+      // below API 21, or without hardware acceleration, the holes are cleared along with the mask on every frame.
+      canvas.drawRect(0, 0, getWidth(), getHeight(), paint);
+      if (shape != null) {
+        // the shape is built once at its full size, and only scaled while the hole animates.
+        canvas.save();
+        canvas.concat(shapeMatrix());
+        canvas.drawPath(shape, holePaint);
+        canvas.restore();
+      } else if (holes == null) {
+        canvas.drawCircle(point.x, point.y, radius, holePaint);
+      } else {
+        // every hole grows with the largest one, so a single animation drives the whole group.
+        float scale = radius / holesRadius;
+        for (int i = 0; i < holes.length; i += 3) {
+          canvas.drawCircle(holes[i], holes[i + 1], holes[i + 2] * scale, holePaint);
+        }
+      }
+    }
+
+    /**
+     * Draws the mask with the holes cut out of its path, for when the overlay has no layer to clear them from.
+     * The holes are merged into one area first, so holes that overlap are still cut out where they overlap.
+     */
+    private void drawMaskPath(Canvas canvas) {
+      holesPath.rewind();
+      if (shape != null) {
+        holesPath.addPath(shape, shapeMatrix());
+      } else if (holes == null) {
+        holesPath.addCircle(point.x, point.y, radius, Path.Direction.CW);
+      } else if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.KITKAT) {
+        float scale = radius / holesRadius;
+        for (int i = 0; i < holes.length; i += 3) {
+          hole.rewind();
+          hole.addCircle(holes[i], holes[i + 1], holes[i + 2] * scale, Path.Direction.CW);
+          holesPath.op(hole, Path.Op.UNION);
+        }
+      } else {
+        float scale = radius / holesRadius;
+        for (int i = 0; i < holes.length; i += 3) {
+          holesPath.addCircle(holes[i], holes[i + 1], holes[i + 2] * scale, Path.Direction.CW);
+        }
+      }
+      if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.KITKAT) {
+        mask.rewind();
+        mask.addRect(0, 0, getWidth(), getHeight(), Path.Direction.CW);
+        mask.op(holesPath, Path.Op.DIFFERENCE);
+        canvas.drawPath(mask, paint);
+      } else {
+        // there are no path operations before API 19, so the holes are clipped out of the mask instead.
+        canvas.save();
+        canvas.clipPath(holesPath, Region.Op.DIFFERENCE);
+        canvas.drawRect(0, 0, getWidth(), getHeight(), paint);
+        canvas.restore();
+      }
+    }
+
+    /**
+     * Returns the matrix that scales the shape to the current radius, and moves it to the hole's point.
+     */
+    private Matrix shapeMatrix() {
+      float scale = radius / targetRadius;
+      shapeMatrix.setScale(scale, scale);
+      shapeMatrix.postTranslate(point.x, point.y);
+      return shapeMatrix;
+    }
+
+    /**
+     * Sets the holes cut by the next turnUp call, instead of a single circle.
+     *
+     * @param holes the x, y and radius of each hole, one after the other, or null to cut a single circle
+     */
+    void setHoles(float[] holes) {
+      this.holes = holes;
+      if (holes == null) {
+        return;
+      }
+      holesRadius = 0;
+      for (int i = 2; i < holes.length; i += 3) {
+        holesRadius = Math.max(holesRadius, holes[i]);
+      }
+    }
+
+    /**
+     * Sets the shape of the hole cut by the next turnUp call.
+     *
+     * @param shape the shape, centered at (0, 0) at its full size, or null to cut a circle
+     */
+    void setHoleShape(Path shape) {
+      this.shape = shape;
+    }
+
+    /**
+     * Opens the spotlight circle at the given point, a shaped hole is fully open once the animated radius
+     * reaches the given radius.
+     */
+    void turnUp(float x, float y, float radius, long duration, TimeInterpolator animation) {
+      point.set(x, y);
+      targetRadius = radius;
+      closing = false;
+      if (punch == null || liteRendering || !isHardwareAccelerated()) {
+        stopPunching();
+        start(0f, radius, duration, animation);
+        return;
+      }
+      if (!punching) {
+        punching = true;
+        // the punch clears the holes out of the layer, so the layer is kept for as long as the punch is used.
+        setLayerType(View.LAYER_TYPE_HARDWARE, null);
+        invalidate();
+      }
+      if (holes != null) {
+        punch.setHoles(holes);
+      } else {
+        if (shape != null) {
+          punch.setShape(shape);
+        } else {
+          punch.setCircle(radius);
+        }
+        punch.moveTo(x, y);
+      }
+      revealing = revealEnabled && shape == null && holes == null;
+      if (revealing) {
+        startReveal(0f, radius, duration, animation);
+      } else {
+        punch.setScale(0f);
+        start(0f, radius, duration, animation);
+      }
+    }
+
+    /**
+     * Specifies whether the overlay is shown and hidden at once, without a fade or an offscreen layer.
+     */
+    void setLiteRendering(boolean lite) {
+      liteRendering = lite;
+      fadeAnimator.setDuration(lite ? 0 : FADE_DURATION);
+    }
+
+    /**
+     * Specifies whether circular holes are opened and closed by the render thread, when the device supports it.
+     */
+    void setRevealEnabled(boolean enabled) {
+      revealEnabled = enabled;
+    }
+
+    /**
+     * Moves the hole to the given point, without restarting its animation.
+     */
+    void moveHole(float x, float y) {
+      point.set(x, y);
+      if (punching) {
+        punch.moveTo(x, y);
+        return;
+      }
+      invalidate();
+    }
+
+    /**
+     * Replaces the shown holes, or the shown shape, with their recalculated versions, and moves the hole to the
+     * given point, without restarting its animation. Nothing changes while the hole is closing, the next target's
+     * holes are set when it's shown.
+     *
+     * @param holes the x, y and radius of each hole, one after the other, or null for a single hole
+     * @param shape the shape of the single hole, or null for a circle
+     */
+    void reshapeHole(float[] holes, Path shape, float x, float y) {
+      if (closing) {
+        return;
+      }
+      setHoles(holes);
+      setHoleShape(shape);
+      point.set(x, y);
+      if (!punching) {
+        invalidate();
+        return;
+      }
+      if (holes != null) {
+        punch.setHoles(holes);
+      } else {
+        if (shape != null) {
+          punch.setShape(shape);
+        }
+        punch.moveTo(x, y);
+      }
+      if (!revealing) {
+        // setting the holes resets the punch to their full size.
+        punch.setScale(radius / targetRadius);
+      }
+    }
+
+    /**
+     * Closes the spotlight circle, the listener's onTargetClosed is called once the animation ends.
+     */
+    void turnDown(float radius, long duration, TimeInterpolator animation) {
+      closing = true;
+      if (revealing) {
+        startReveal(radius, 0f, duration, animation);
+      } else {
+        start(radius, 0f, duration, animation);
+      }
+    }
+
+    private void startReveal(float from, float to, long duration, TimeInterpolator animation) {
+      if (reveal != null) {
+        reveal.cancel();
+      }
+      reveal = punch.reveal(from, to, duration, animation);
+      reveal.addListener(revealListener);
+      reveal.start();
+    }
+
+    /**
+     * Goes back to drawing the holes along with the mask.
+     */
+    private void stopPunching() {
+      if (reveal != null) {
+        reveal.cancel();
+        reveal = null;
+      }
+      revealing = false;
+      if (punching) {
+        punching = false;
+        punch.setVisibility(View.INVISIBLE);
+        invalidate();
+      }
+    }
+
+    private boolean isAnimating() {
+      return animator.isRunning() || (reveal != null && reveal.isRunning());
+    }
+
+    /**
+     * Removes the target views, keeping the punch.
+     */
+    private void removeTargetViews() {
+      int first = punch == null ? 0 : 1;
+      if (getChildCount() > first) {
+        removeViews(first, getChildCount() - first);
+      }
+    }
+
+    private void start(float from, float to, long duration, TimeInterpolator animation) {
+      animator.cancel();
+      animator.setFloatValues(from, to);
+      animator.setInterpolator(animation);
+      animator.setDuration(duration);
+      animator.start();
+    }
+
+    /**
+     * Calls onCompleted when an animation ends without being cancelled.
+     */
+    private abstract static class CompletionListener extends AnimatorListenerAdapter {
+      private boolean cancelled = false;
+
+      @Override
+      public void onAnimationStart(Animator animation) {
+        cancelled = false;
+      }
+
+      @Override
+      public void onAnimationCancel(Animator animation) {
+        cancelled = true;
+      }
+
+      @Override
+      public void onAnimationEnd(Animator animation) {
+        if (!cancelled) {
+          onCompleted();
+        }
+      }
+
+      abstract void onCompleted();
+    }
+}
@@ -0,0 +1,231 @@
+// -*- mode: java; c-basic-offset: 2; -*-
+// Released under the GNU General Public License v3.0
+// https://www.gnu.org/licenses/gpl-3.0.en.html
+
+package io.mohamed.CustomSpotlight;
+
+import android.app.Activity;
+import android.view.View;
+
+import java.util.Iterator;
+import java.util.PriorityQueue;
+
+/**
+ * The spotlights shown by a single CustomSpotlight component. Each session has its own overlay and its own
+ * active tour, so two components, or two screens, never replace or dismiss each other's spotlights, and a
+ * session holds no static state, so it's garbage collected along with its component.
+ *
+ * The tours requested while a tour is shown are queued by priority, and the next one takes the overlay over as
+ * soon as the shown tour ends.
+ */
+class SpotlightSession {
+    /**
+     * A queued tour, the tours with a higher priority are shown first, and the tours with the same priority are
+     * shown in the order they were requested.
+     */
+    private static class Request implements Comparable<Request> {
+      private final String id;
+      private final long order;
+      private SpotlightTour tour;
+      private int priority;
+
+      Request(SpotlightTour tour, String id, int priority, long order) {
+        this.tour = tour;
+        this.id = id;
+        this.priority = priority;
+        this.order = order;
+      }
+
+      @Override
+      public int compareTo(Request other) {
+        if (priority != other.priority) {
+          return priority > other.priority ? -1 : 1;
+        }
+        return order < other.order ? -1 : (order == other.order ? 0 : 1);
+      }
+    }
+
+    private final Activity context;
+    private final PriorityQueue<Request> queue = new PriorityQueue<>();
+    private SpotlightOverlay overlay;
+    private SpotlightTour activeTour;
+    private long requests = 0;
+    private SpotlightOverlay.FrameObserver frameObserver;
+
+    SpotlightSession(Activity context) {
+      this.context = context;
+    }
+
+    /**
+     * Shows the given tour if no tour is shown, and queues it otherwise. A queued tour replaces the pending
+     * tour with the same id, which keeps its place in the queue, and the higher of the two priorities.
+     *
+     * @param tour the tour
+     * @param id the id of the tour
+     * @param priority the priority of the tour, higher priorities are shown first
+     * @return true if the tour was shown at once, false if it was queued
+     */
+    boolean submit(SpotlightTour tour, String id, int priority) {
+      if (activeTour == null || !activeTour.isActive()) {
+        start(tour);
+        return true;
+      }
+      for (Iterator<Request> iterator = queue.iterator(); iterator.hasNext(); ) {
+        Request request = iterator.next();
+        if (request.id.equals(id)) {
+          // the queue is ordered when requests are added, so the merged request is added again.
+          iterator.remove();
+          request.tour = tour;
+          request.priority = Math.max(request.priority, priority);
+          queue.add(request);
+          return false;
+        }
+      }
+      queue.add(new Request(tour, id, priority, requests++));
+      return false;
+    }
+
+    /**
+     * Shows the given tour on the session's overlay, the tour that was previously shown is dropped.
+     *
+     * @param tour the tour
+     */
+    private void start(SpotlightTour tour) {
+      if (overlay == null) {
+        overlay = SpotlightOverlay.create(context);
+        overlay.setFrameObserver(frameObserver);
+      }
+      activeTour = tour;
+      tour.start(this, overlay);
+    }
+
+    /**
+     * Hands the overlay of the given tour, which has closed its last target, over to the next queued tour.
+     *
+     * @param finished the tour that has closed its last target
+     * @return true if the overlay was handed over, false if there are no queued tours
+     */
+    boolean handOff(SpotlightTour finished) {
+      if (finished != activeTour || queue.isEmpty()) {
+        return false;
+      }
+      SpotlightTour next = queue.poll().tour;
+      activeTour = next;
+      next.takeOver(this, overlay);
+      // the finished tour's Ended event is dispatched before the next tour's Started event.
+      finished.end();
+      if (next == activeTour) {
+        next.begin();
+      }
+      return true;
+    }
+
+    /**
+     * Shows the next queued tour once the given tour is hidden.
+     *
+     * @param tour the hidden tour
+     */
+    void onEnded(SpotlightTour tour) {
+      if (tour == activeTour && !queue.isEmpty()) {
+        start(queue.poll().tour);
+      }
+    }
+
+    /**
+     * Sets the observer notified each time the session's overlay changes.
+     *
+     * @param observer the observer, or null
+     */
+    void setFrameObserver(SpotlightOverlay.FrameObserver observer) {
+      frameObserver = observer;
+      if (overlay != null) {
+        overlay.setFrameObserver(observer);
+      }
+    }
+
+    /**
+     * Returns the number of tours waiting to be shown.
+     */
+    int getQueueSize() {
+      return queue.size();
+    }
+
+    /**
+     * Drops the tours waiting to be shown, the shown tour isn't affected.
+     */
+    void clearQueue() {
+      queue.clear();
+    }
+
+    /**
+     * Creates the session's overlay if it wasn't created yet, and draws a frame of a spotlight on it that can't be
+     * seen, unless a spotlight is shown.
+     *
+     * @param sample a target view to draw in the frame
+     * @param lite true to warm the overlay up for the lite rendering profile
+     */
+    void warmUp(View sample, boolean lite) {
+      if (overlay == null) {
+        overlay = SpotlightOverlay.create(context);
+        overlay.setFrameObserver(frameObserver);
+      }
+      if (activeTour == null || !activeTour.isActive()) {
+        overlay.setLiteRendering(lite);
+        overlay.warmUp(sample);
+      }
+    }
+
+    /**
+     * Returns the tour that was last started.
+     *
+     * @return the tour, or null if no tour was started
+     */
+    SpotlightTour getActiveTour() {
+      return activeTour;
+    }
+
+    /**
+     * Closes the current target of the active tour.
+     */
+    void dismissTarget() {
+      if (activeTour != null) {
+        activeTour.finishTarget();
+      }
+    }
+
+    /**
+     * Closes the active tour.
+     */
+    void dismissSpotlight() {
+      if (activeTour != null) {
+        activeTour.finishSpotlight();
+      }
+    }
+
+    /**
+     * Drops the queued tours, and closes the active tour at once, its Ended listener is called before this
+     * returns.
+     */
+    void close() {
+      queue.clear();
+      if (activeTour != null) {
+        SpotlightTour tour = activeTour;
+        tour.close();
+        if (tour == activeTour) {
+          activeTour = null;
+        }
+      }
+    }
+
+    /**
+     * Closes the session for good, and removes its overlay from the activity's window.
+     */
+    void destroy() {
+      close();
+      if (overlay != null) {
+        overlay.detach();
+        overlay = null;
+      }
+      activeTour = null;
+    }
+}
@@ -0,0 +1,343 @@
+// -*- mode: java; c-basic-offset: 2; -*-
+// Released under the GNU General Public License v3.0
+// https://www.gnu.org/licenses/gpl-3.0.en.html
+
+package io.mohamed.CustomSpotlight;
+
+import android.animation.TimeInterpolator;
+import android.graphics.Color;
+import android.graphics.PointF;
+import android.view.animation.DecelerateInterpolator;
+
+import com.takusemba.spotlight.OnSpotlightEndedListener;
+import com.takusemba.spotlight.OnSpotlightStartedListener;
+import com.takusemba.spotlight.OnTargetClosedListener;
+import com.takusemba.spotlight.Target;
+
+import java.util.ArrayList;
+import java.util.Collections;
+
+/**
+ * Shows a sequence of targets on a session's overlay. Unlike the library's Spotlight class, each tour keeps
+ * its own targets and listeners, and a tour can be started again once it ends.
+ */
+class SpotlightTour implements SpotlightOverlay.Listener {
+    private final ArrayList<Target> targets = new ArrayList<>();
+    private Target[] allTargets = new Target[0];
+    private long duration = 1000;
+    private TimeInterpolator animation = new DecelerateInterpolator(2f);
+    private int maskColor = Color.parseColor("#E6000000");
+    private OnSpotlightStartedListener startedListener;
+    private OnSpotlightEndedListener endedListener;
+    private OnTargetClosedListener targetClosedListener;
+    private SpotlightOverlay overlay;
+    private Target lastTarget;
+    private boolean renderThreadAnimations = false;
+    private boolean liteRendering = false;
+    private SpotlightSession session;
+    private LayoutPositioner positioner;
+
+    SpotlightTour setTargets(Target... targets) {
+      allTargets = targets;
+      return this;
+    }
+
+    SpotlightTour setDuration(long duration) {
+      this.duration = duration;
+      return this;
+    }
+
+    SpotlightTour setAnimation(TimeInterpolator animation) {
+      this.animation = animation;
+      return this;
+    }
+
+    SpotlightTour setMaskColor(int maskColor) {
+      this.maskColor = maskColor;
+      return this;
+    }
+
+    SpotlightTour setRenderThreadAnimations(boolean enabled) {
+      renderThreadAnimations = enabled;
+      return this;
+    }
+
+    SpotlightTour setLiteRendering(boolean lite) {
+      liteRendering = lite;
+      return this;
+    }
+
+    /**
+     * Sets the positioner that moves the custom layouts of the tour's targets, it's attached while the tour is
+     * shown.
+     */
+    SpotlightTour setLayoutPositioner(LayoutPositioner positioner) {
+      this.positioner = positioner;
+      return this;
+    }
+
+    SpotlightTour setOnSpotlightStartedListener(OnSpotlightStartedListener listener) {
+      startedListener = listener;
+      return this;
+    }
+
+    SpotlightTour setOnSpotlightEndedListener(OnSpotlightEndedListener listener) {
+      endedListener = listener;
+      return this;
+    }
+
+    SpotlightTour setOnTargetClosedListener(OnTargetClosedListener listener) {
+      targetClosedListener = listener;
+      return this;
+    }
+
+    /**
+     * Shows the tour from its first target.
+     *
+     * @param session the session the tour is shown by
+     * @param overlay the overlay to show the tour on
+     */
+    void start(SpotlightSession session, SpotlightOverlay overlay) {
+      prepare(session, overlay);
+      overlay.show(this, maskColor);
+      attachPositioner();
+    }
+
+    /**
+     * Takes the given overlay over from the tour that's shown on it, without fading the overlay out and in again.
+     * The tour starts once begin is called.
+     *
+     * @param session the session the tour is shown by
+     * @param overlay the shown overlay
+     */
+    void takeOver(SpotlightSession session, SpotlightOverlay overlay) {
+      prepare(session, overlay);
+      overlay.handOver(this, maskColor);
+      attachPositioner();
+    }
+
+    /**
+     * Starts a tour that took an overlay over.
+     */
+    void begin() {
+      if (isActive()) {
+        onStarted();
+      }
+      if (isActive()) {
+        onShown();
+      }
+    }
+
+    /**
+     * Ends a tour whose overlay was taken over by another tour.
+     */
+    void end() {
+      onHidden();
+    }
+
+    private void prepare(SpotlightSession session, SpotlightOverlay overlay) {
+      targets.clear();
+      Collections.addAll(targets, allTargets);
+      lastTarget = null;
+      this.session = session;
+      this.overlay = overlay;
+      overlay.setRevealEnabled(renderThreadAnimations && !liteRendering);
+      overlay.setLiteRendering(liteRendering);
+    }
+
+    private void attachPositioner() {
+      if (positioner != null) {
+        positioner.detach();
+        positioner.attach(this);
+      }
+    }
+
+    /**
+     * Returns the overlay the tour is shown on.
+     *
+     * @return the overlay, or null if the tour was never started
+     */
+    SpotlightOverlay getOverlay() {
+      return overlay;
+    }
+
+    /**
+     * Returns the target that is currently shown, or about to be shown.
+     *
+     * @return the current target, or null if there are no targets left
+     */
+    Target getCurrentTarget() {
+      return targets.isEmpty() ? null : targets.get(0);
+    }
+
+    /**
+     * Returns whether the tour is currently shown, a tour stops being shown when it ends, or when another tour is
+     * shown on the same overlay.
+     */
+    boolean isActive() {
+      return overlay != null && overlay.isOwnedBy(this);
+    }
+
+    /**
+     * Closes the current target, and moves to the next one.
+     */
+    void finishTarget() {
+      if (isActive() && !targets.isEmpty()) {
+        lastTarget = targets.remove(0);
+        untrack(lastTarget);
+        overlay.turnDown(lastTarget.getRadius(), animationDuration(), animation);
+      }
+    }
+
+    /**
+     * Closes the whole tour.
+     */
+    void finishSpotlight() {
+      if (isActive()) {
+        if (!targets.isEmpty()) {
+          untrack(targets.get(0));
+        }
+        overlay.hide();
+      }
+    }
+
+    /**
+     * Ends the tour once its last target is closed, the overlay is handed over to the next queued tour if there's
+     * one, and faded out otherwise.
+     */
+    private void finish() {
+      if (session == null || !session.handOff(this)) {
+        finishSpotlight();
+      }
+    }
+
+    /**
+     * Closes the whole tour at once, without animating the overlay out.
+     */
+    void close() {
+      if (isActive()) {
+        if (!targets.isEmpty()) {
+          untrack(targets.get(0));
+        }
+        overlay.dismiss();
+      }
+    }
+
+    /**
+     * Shows the current target, once its component is scrolled into view if it's in a scroll container.
+     */
+    private void startTarget() {
+      final Target target = targets.get(0);
+      Runnable scrolled = new Runnable() {
+        @Override
+        public void run() {
+          // the target may have been dismissed while its component was scrolling.
+          if (isActive() && getCurrentTarget() == target) {
+            target.recalculate();
+            showTarget(target);
+          }
+        }
+      };
+      if (!(target instanceof TrackedTarget) || !((TrackedTarget) target).scrollIntoView(scrolled)) {
+        showTarget(target);
+      }
+    }
+
+    private void showTarget(Target target) {
+      overlay.setTargetView(target.getView());
+      overlay.setHoles(target instanceof GroupTarget ? ((GroupTarget) target).getHoles() : null);
+      overlay.setHoleShape(target instanceof TrackedTarget ? ((TrackedTarget) target).getShape() : null);
+      PointF point = target.getPoint();
+      overlay.turnUp(point.x, point.y, target.getRadius(), animationDuration(), animation);
+      if (target instanceof TrackedTarget) {
+        ((TrackedTarget) target).track(this);
+      }
+    }
+
+    /**
+     * Returns the duration of the hole animations, the lite rendering profile shows the holes at once.
+     */
+    private long animationDuration() {
+      return liteRendering ? 0 : duration;
+    }
+
+    private void untrack(Target target) {
+      if (target instanceof TrackedTarget) {
+        ((TrackedTarget) target).untrack();
+      }
+    }
+
+    @Override
+    public void onStarted() {
+      if (startedListener != null) {
+        startedListener.onStarted();
+      }
+    }
+
+    @Override
+    public void onShown() {
+      if (!targets.isEmpty()) {
+        startTarget();
+      } else {
+        finish();
+      }
+    }
+
+    @Override
+    public void onTargetClicked() {
+      finishTarget();
+    }
+
+    @Override
+    public void onTargetClosed() {
+      if (lastTarget != null && targetClosedListener != null) {
+        targetClosedListener.onTargetClosed(lastTarget);
+      }
+      if (!isActive()) {
+        // the listener showed another tour.
+        return;
+      }
+      if (!targets.isEmpty()) {
+        startTarget();
+      } else {
+        finish();
+      }
+    }
+
+    /**
+     * Recalculates the position, the shape and the group holes of the current and the remaining targets in one
+     * pass, the tour carries on from the current target.
+     */
+    @Override
+    public void onResized() {
+      if (!isActive()) {
+        return;
+      }
+      for (Target target : targets) {
+        if (target instanceof TrackedTarget || target instanceof GroupTarget) {
+          target.recalculate();
+        }
+      }
+      Target current = getCurrentTarget();
+      if (current instanceof GroupTarget) {
+        PointF point = current.getPoint();
+        overlay.reshapeHole(((GroupTarget) current).getHoles(), null, point.x, point.y);
+      } else if (current instanceof TrackedTarget) {
+        PointF point = current.getPoint();
+        overlay.reshapeHole(null, ((TrackedTarget) current).getShape(), point.x, point.y);
+      }
+    }
+
+    @Override
+    public void onHidden() {
+      if (positioner != null) {
+        positioner.detach();
+      }
+      if (endedListener != null) {
+        endedListener.onEnded();
+      }
+      if (session != null) {
+        session.onEnded(this);
+      }
+    }
+}
@@ -0,0 +1,180 @@
+// -*- mode: java; c-basic-offset: 2; -*-
+// Released under the GNU General Public License v3.0
+// https://www.gnu.org/licenses/gpl-3.0.en.html
+
+package io.mohamed.CustomSpotlight;
+
+import android.os.Build;
+import android.os.Trace;
+import android.view.View;
+import android.view.ViewTreeObserver;
+
+import com.google.appinventor.components.runtime.util.YailList;
+
+/**
+ * Measures the time each phase of showing a spotlight takes, from the Show block call up to the first draw of
+ * the overlay. Each phase is also marked as a trace section, so it shows up in systrace and perfetto captures.
+ */
+class StartupTrace implements ViewTreeObserver.OnPreDrawListener {
+    private static final int TARGETS = 0;
+    private static final int TEXT = 1;
+    private static final int ATTACH = 2;
+    private static final int STARTED = 3;
+    private static final int FIRST_DRAW = 4;
+    private static final String[] PHASES = {"targets", "text", "attach", "started", "firstDraw"};
+
+    private final long[] durations = new long[PHASES.length];
+    private long startTime;
+    private long phaseStart;
+    private long textStart;
+    private boolean building = false;
+    private boolean parsingText = false;
+    private boolean attaching = false;
+    private ViewTreeObserver observer;
+
+    /**
+     * Starts measuring a new spotlight, the targets are built right after this call.
+     */
+    void begin() {
+      // the previous spotlight may have failed before it was shown.
+      cancel();
+      for (int i = 0; i < durations.length; i++) {
+        durations[i] = 0;
+      }
+      startTime = System.nanoTime();
+      phaseStart = startTime;
+      building = true;
+      beginSection("CustomSpotlight targets");
+    }
+
+    /**
+     * Marks the start of parsing a title or description, only counted while the targets are built.
+     */
+    void beginText() {
+      if (building) {
+        textStart = System.nanoTime();
+        parsingText = true;
+        beginSection("CustomSpotlight text");
+      }
+    }
+
+    void endText() {
+      if (parsingText) {
+        durations[TEXT] += System.nanoTime() - textStart;
+        parsingText = false;
+        endSection();
+      }
+    }
+
+    /**
+     * Marks the end of building the targets, and the start of attaching and showing the overlay.
+     */
+    void beginAttach() {
+      if (!building) {
+        return;
+      }
+      long now = System.nanoTime();
+      durations[TARGETS] = now - phaseStart - durations[TEXT];
+      endSection();
+      building = false;
+      attaching = true;
+      phaseStart = now;
+      beginSection("CustomSpotlight attach");
+    }
+
+    /**
+     * Marks the Started callback of the spotlight.
+     */
+    void started() {
+      if (!attaching) {
+        return;
+      }
+      long now = System.nanoTime();
+      durations[ATTACH] = now - phaseStart;
+      durations[STARTED] = now - startTime;
+      endSection();
+      attaching = false;
+      phaseStart = now;
+    }
+
+    /**
+     * Marks the end of showing the overlay, the first draw is measured from the Started callback.
+     *
+     * @param overlay the overlay the spotlight is shown on
+     */
+    void attached(View overlay) {
+      started();
+      stopWaitingForDraw();
+      observer = overlay.getViewTreeObserver();
+      observer.addOnPreDrawListener(this);
+    }
+
+    /**
+     * Stops measuring a spotlight whose block returned, or failed, before the spotlight was attached. The open
+     * trace sections are closed before the block returns, so they never span more than one message.
+     */
+    void failed() {
+      if (building || attaching) {
+        cancel();
+      }
+    }
+
+    /**
+     * Stops measuring the current spotlight, closing its open trace sections.
+     */
+    void cancel() {
+      if (parsingText) {
+        endSection();
+      }
+      if (building || attaching) {
+        endSection();
+      }
+      parsingText = false;
+      building = false;
+      attaching = false;
+      stopWaitingForDraw();
+    }
+
+    @Override
+    public boolean onPreDraw() {
+      durations[FIRST_DRAW] = System.nanoTime() - phaseStart;
+      stopWaitingForDraw();
+      return true;
+    }
+
+    private void stopWaitingForDraw() {
+      if (observer != null && observer.isAlive()) {
+        observer.removeOnPreDrawListener(this);
+      }
+      observer = null;
+    }
+
+    /**
+     * Returns the measured phases of the last spotlight.
+     *
+     * @return a list of pairs of each phase and its duration in milliseconds, "started" is the total time up to
+     * the Started event
+     */
+    YailList breakdown() {
+      Object[] pairs = new Object[PHASES.length];
+      for (int i = 0; i < PHASES.length; i++) {
+        pairs[i] = YailList.makeList(new Object[] {PHASES[i], durations[i] / 1000000.0});
+      }
+      return YailList.makeList(pairs);
+    }
+
+    /**
+     * Opens a trace section, trace sections are only available on API 18 and above.
+     */
+    private static void beginSection(String name) {
+      if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR2) {
+        Trace.beginSection(name);
+      }
+    }
+
+    private static void endSection() {
+      if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR2) {
+        Trace.endSection();
+      }
+    }
+}
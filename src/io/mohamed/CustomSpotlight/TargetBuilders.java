@@ -0,0 +1,46 @@
+// -*- mode: java; c-basic-offset: 2; -*-
+// Released under the GNU General Public License v3.0
+// https://www.gnu.org/licenses/gpl-3.0.en.html
+
+package io.mohamed.CustomSpotlight;
+
+import com.takusemba.spotlight.CustomTarget;
+import com.takusemba.spotlight.SimpleTarget;
+
+/**
+ * Builds the library targets without leaving the builder reachable. Each builder's constructor stores the
+ * builder in a static field of its target class, which would keep the builder's views, texts and typefaces
+ * alive after the tour ends. Once a target is built, an empty builder is created to take the built one's place.
+ */
+final class TargetBuilders {
+    private TargetBuilders() {
+    }
+
+    /**
+     * Builds the given simple target.
+     *
+     * @param builder the builder of the target
+     * @return the built target
+     */
+    static SimpleTarget build(SimpleTarget.Builder builder) {
+      try {
+        return builder.build();
+      } finally {
+        new SimpleTarget.Builder(null);
+      }
+    }
+
+    /**
+     * Builds the given custom target.
+     *
+     * @param builder the builder of the target
+     * @return the built target
+     */
+    static CustomTarget build(CustomTarget.Builder builder) {
+      try {
+        return builder.build();
+      } finally {
+        new CustomTarget.Builder(null);
+      }
+    }
+}
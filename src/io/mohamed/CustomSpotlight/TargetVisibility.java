@@ -0,0 +1,86 @@
+// -*- mode: java; c-basic-offset: 2; -*-
+// Released under the GNU General Public License v3.0
+// https://www.gnu.org/licenses/gpl-3.0.en.html
+
+package io.mohamed.CustomSpotlight;
+
+import android.graphics.Rect;
+import android.view.View;
+import android.view.ViewGroup;
+import android.view.ViewParent;
+import android.widget.HorizontalScrollView;
+import android.widget.ScrollView;
+
+/**
+ * Whether a component can be highlighted. A component can't be highlighted when it or one of its parents isn't
+ * visible, when it has no size, or when it's off the screen and no scroll container can bring it into view.
+ */
+final class TargetVisibility {
+    private static final TargetVisibility HIDDEN = new TargetVisibility(false, null);
+
+    private final boolean visible;
+    private final ViewGroup scrollContainer;
+
+    private TargetVisibility(boolean visible, ViewGroup scrollContainer) {
+      this.visible = visible;
+      this.scrollContainer = scrollContainer;
+    }
+
+    /**
+     * Checks the given views, the parents of each view are walked once, checking their visibility and looking for
+     * the nearest scroll container at the same time.
+     *
+     * @param views the views, null views are hidden
+     * @return the visibility of each view
+     */
+    static TargetVisibility[] check(View[] views) {
+      TargetVisibility[] visibilities = new TargetVisibility[views.length];
+      Rect bounds = new Rect();
+      for (int i = 0; i < views.length; i++) {
+        visibilities[i] = views[i] == null ? HIDDEN : check(views[i], bounds);
+      }
+      return visibilities;
+    }
+
+    private static TargetVisibility check(View view, Rect bounds) {
+      if (view.getVisibility() != View.VISIBLE || view.getWidth() == 0 || view.getHeight() == 0) {
+        return HIDDEN;
+      }
+      ViewGroup scrollContainer = null;
+      ViewParent parent = view.getParent();
+      while (parent instanceof View) {
+        View ancestor = (View) parent;
+        if (ancestor.getVisibility() != View.VISIBLE) {
+          return HIDDEN;
+        }
+        if (scrollContainer == null && (ancestor instanceof ScrollView || ancestor instanceof HorizontalScrollView)) {
+          scrollContainer = (ViewGroup) ancestor;
+        }
+        parent = ancestor.getParent();
+      }
+      if (parent == null) {
+        // the view isn't attached to a window.
+        return HIDDEN;
+      }
+      if (scrollContainer == null && !view.getGlobalVisibleRect(bounds)) {
+        return HIDDEN;
+      }
+      return new TargetVisibility(true, scrollContainer);
+    }
+
+    /**
+     * Returns whether the component can be highlighted.
+     */
+    boolean isVisible() {
+      return visible;
+    }
+
+    /**
+     * Returns the nearest scroll container of the component.
+     *
+     * @return the ScrollView or HorizontalScrollView, or null if the component isn't in a scroll container
+     */
+    ViewGroup getScrollContainer() {
+      return scrollContainer;
+    }
+}
@@ -0,0 +1,87 @@
+// -*- mode: java; c-basic-offset: 2; -*-
+// Released under the GNU General Public License v3.0
+// https://www.gnu.org/licenses/gpl-3.0.en.html
+
+package io.mohamed.CustomSpotlight;
+
+import android.text.Html;
+import android.text.PrecomputedText;
+import android.text.Spanned;
+import android.text.SpannedString;
+import android.util.LruCache;
+import android.widget.TextView;
+
+/**
+ * A process wide cache of the parsed html texts used by the spotlights' titles and descriptions.
+ */
+final class TextCache {
+    private static final int MAX_ENTRIES = 128;
+    private static final LruCache<String, Spanned> SPANS = new LruCache<>(MAX_ENTRIES);
+
+    private TextCache() {
+    }
+
+    /**
+     * Parses the given html text, or returns it from the cache if it was parsed before.
+     *
+     * @param html the html text
+     * @return the parsed text
+     */
+    static Spanned fromHtml(String html) {
+      Spanned spanned = SPANS.get(html);
+      if (spanned == null) {
+        // keep an immutable copy, since the cached text is shared by many text views.
+        spanned = new SpannedString(Html.fromHtml(html));
+        SPANS.put(html, spanned);
+      }
+      return spanned;
+    }
+
+    /**
+     * The measured texts of a single text style, only used on API 28 and above. The texts are measured on the
+     * background worker, so that the text views don't measure them on the UI thread.
+     */
+    static final class Style {
+      private final PrecomputedText.Params params;
+      private final LruCache<String, PrecomputedText> texts = new LruCache<>(MAX_ENTRIES);
+
+      /**
+       * Creates a style that measures the texts the same way the given text view does.
+       *
+       * @param template a text view configured the same way as the text views the texts are shown in
+       */
+      Style(TextView template) {
+        params = template.getTextMetricsParams();
+      }
+
+      /**
+       * Returns the given html text, already measured if it was precomputed before.
+       *
+       * @param html the html text
+       * @return the measured text, or the parsed text if it was not measured yet
+       */
+      CharSequence get(String html) {
+        PrecomputedText text = texts.get(html);
+        return text != null ? text : fromHtml(html);
+      }
+
+      /**
+       * Parses and measures the given html text on the background worker.
+       *
+       * @param html the html text
+       */
+      void precompute(final String html) {
+        if (texts.get(html) != null) {
+          return;
+        }
+        BackgroundWorker.execute(new Runnable() {
+          @Override
+          public void run() {
+            if (texts.get(html) == null) {
+              texts.put(html, PrecomputedText.create(fromHtml(html), params));
+            }
+          }
+        });
+      }
+    }
+}
@@ -0,0 +1,68 @@
+// -*- mode: java; c-basic-offset: 2; -*-
+// Released under the GNU General Public License v3.0
+// https://www.gnu.org/licenses/gpl-3.0.en.html
+
+package io.mohamed.CustomSpotlight;
+
+import android.app.Activity;
+import android.graphics.Point;
+import android.view.View;
+import android.view.ViewGroup;
+
+import com.takusemba.spotlight.SimpleTarget;
+
+/**
+ * Builds simple targets whose text is placed above the hole without a global layout listener. The library's
+ * builder places the text above a hole in the lower half of the screen using a listener on the target view's
+ * view tree observer, which is never removed, so it keeps the builder and the target's views alive for as long
+ * as the window. The target is built as if its hole was at the top of the screen instead, and the text is then
+ * placed by a listener on the text layout itself, which goes away with the target's views.
+ */
+class TextTargetBuilder extends SimpleTarget.Builder {
+    // the space the library's builder leaves between the hole and the text.
+    private static final float TEXT_MARGIN = 100;
+
+    TextTargetBuilder(Activity context) {
+      super(context);
+    }
+
+    @Override
+    public SimpleTarget build() {
+      float y = startY;
+      startY = 0;
+      SimpleTarget target;
+      try {
+        target = super.build();
+      } finally {
+        startY = y;
+      }
+      target.getPoint().set(startX, y);
+      View layout = ((ViewGroup) target.getView()).getChildAt(0);
+      Point size = new Point();
+      getContext().getWindowManager().getDefaultDisplay().getSize(size);
+      // the same side the library's builder picks, the text is below the hole in the upper half of the screen.
+      if (y > size.y - y) {
+        layout.addOnLayoutChangeListener(new AbovePlacement(y - radius - TEXT_MARGIN));
+      } else {
+        layout.setY((int) (y + radius + TEXT_MARGIN));
+      }
+      return target;
+    }
+
+    /**
+     * Keeps the bottom of the text layout at the given position whenever the layout is laid out.
+     */
+    private static class AbovePlacement implements View.OnLayoutChangeListener {
+      private final float textBottom;
+
+      AbovePlacement(float textBottom) {
+        this.textBottom = textBottom;
+      }
+
+      @Override
+      public void onLayoutChange(View view, int left, int top, int right, int bottom, int oldLeft, int oldTop,
+          int oldRight, int oldBottom) {
+        view.setY(textBottom - view.getHeight());
+      }
+    }
+}
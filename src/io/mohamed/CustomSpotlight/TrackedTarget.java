@@ -0,0 +1,320 @@
+// -*- mode: java; c-basic-offset: 2; -*-
+// Released under the GNU General Public License v3.0
+// https://www.gnu.org/licenses/gpl-3.0.en.html
+
+package io.mohamed.CustomSpotlight;
+
+import android.graphics.Path;
+import android.graphics.PointF;
+import android.graphics.Rect;
+import android.view.View;
+import android.view.ViewGroup;
+import android.view.ViewTreeObserver;
+import android.widget.HorizontalScrollView;
+import android.widget.ScrollView;
+
+import com.takusemba.spotlight.Target;
+
+/**
+ * A target bound to the component it highlights, so that its position can be recalculated when the component
+ * moves, or when the window is resized. The target can also follow its component while it's shown, in which
+ * case the position is checked once per frame, right before the frame is drawn, and the hole is only moved when
+ * the component actually moved.
+ */
+class TrackedTarget implements Target, ViewTreeObserver.OnPreDrawListener {
+    // the space the target builder leaves between the hole and the text.
+    private static final float TEXT_MARGIN = 100;
+    // the longest the tour waits for a scroll to end, the scroll never reaches its end if it's interrupted.
+    private static final long SCROLL_TIMEOUT = 1000;
+
+    private final Target target;
+    private final View component;
+    private final boolean follow;
+    private final String shapeName;
+    private final int shapePadding;
+    private final ViewGroup scrollContainer;
+    private final PointF point = new PointF();
+    private final int[] location = new int[2];
+    private Path shape;
+    private int shapeWidth = -1;
+    private int shapeHeight = -1;
+    private boolean initialized = false;
+    private boolean moved = false;
+    private SpotlightTour tour;
+    private ViewTreeObserver observer;
+
+    /**
+     * Creates a target bound to the given component.
+     *
+     * @param target the target, built at the component's current position
+     * @param component the highlighted component's view
+     * @param follow true to follow the component while the target is shown
+     * @param shapeName the shape of the hole, or null for a circle
+     * @param shapePadding the space between the component's bounds and a shaped hole, in pixels
+     * @param scrollContainer the component's nearest scroll container, or null
+     */
+    TrackedTarget(Target target, View component, boolean follow, String shapeName, int shapePadding,
+        ViewGroup scrollContainer) {
+      this.target = target;
+      this.component = component;
+      this.follow = follow;
+      this.shapeName = shapeName;
+      this.shapePadding = shapePadding;
+      this.scrollContainer = scrollContainer;
+      updateShape();
+    }
+
+    /**
+     * Returns the shape of the target's hole.
+     *
+     * @return the shape, centered at (0, 0) at its full size, or null for a circle
+     */
+    Path getShape() {
+      return shape;
+    }
+
+    /**
+     * Builds the shape of the hole again if the component was resized since the shape was built.
+     */
+    private void updateShape() {
+      if (shapeName == null) {
+        return;
+      }
+      int width = component.getWidth();
+      int height = component.getHeight();
+      if (width != shapeWidth || height != shapeHeight) {
+        shapeWidth = width;
+        shapeHeight = height;
+        shape = HoleShape.create(shapeName, width + 2 * shapePadding, height + 2 * shapePadding);
+      }
+    }
+
+    /**
+     * Returns the wrapped target.
+     */
+    Target getTarget() {
+      return target;
+    }
+
+    /**
+     * Smoothly scrolls the component's scroll container so that the component is centered in it, if the component
+     * isn't fully in view. The target should be recalculated once the scroll ends.
+     *
+     * @param scrolled called on the UI thread once the scroll ends
+     * @return true if the container scrolls, false if the component is already in view and scrolled won't be
+     *     called
+     */
+    boolean scrollIntoView(Runnable scrolled) {
+      if (scrollContainer == null || scrollContainer.getChildCount() == 0) {
+        return false;
+      }
+      Rect bounds = new Rect(0, 0, component.getWidth(), component.getHeight());
+      // the bounds are in the container's content coordinates, which are compared against its scroll position.
+      scrollContainer.offsetDescendantRectToMyCoords(component, bounds);
+      View content = scrollContainer.getChildAt(0);
+      if (scrollContainer instanceof ScrollView) {
+        int scroll = scrollTo(bounds.top, bounds.bottom, scrollContainer.getScrollY(), scrollContainer.getHeight(),
+            content.getHeight());
+        if (scroll == scrollContainer.getScrollY()) {
+          return false;
+        }
+        ((ScrollView) scrollContainer).smoothScrollTo(scrollContainer.getScrollX(), scroll);
+        new ScrollWait(scrollContainer, scrollContainer.getScrollX(), scroll, scrolled).start();
+      } else {
+        int scroll = scrollTo(bounds.left, bounds.right, scrollContainer.getScrollX(), scrollContainer.getWidth(),
+            content.getWidth());
+        if (scroll == scrollContainer.getScrollX()) {
+          return false;
+        }
+        ((HorizontalScrollView) scrollContainer).smoothScrollTo(scroll, scrollContainer.getScrollY());
+        new ScrollWait(scrollContainer, scroll, scrollContainer.getScrollY(), scrolled).start();
+      }
+      return true;
+    }
+
+    /**
+     * Returns the scroll position that centers the given range, or the current position if the range is fully in
+     * view.
+     */
+    private static int scrollTo(int start, int end, int scroll, int size, int contentSize) {
+      if (start >= scroll && end <= scroll + size) {
+        return scroll;
+      }
+      int centered = (start + end) / 2 - size / 2;
+      return Math.max(0, Math.min(centered, contentSize - size));
+    }
+
+    /**
+     * Starts following the component until the target is closed, if the target follows its component. Otherwise,
+     * the text is only placed once, if the target moved since it was built.
+     *
+     * @param tour the tour the target is shown in
+     */
+    void track(SpotlightTour tour) {
+      untrack();
+      if (!follow && !moved) {
+        return;
+      }
+      this.tour = tour;
+      observer = component.getViewTreeObserver();
+      observer.addOnPreDrawListener(this);
+    }
+
+    /**
+     * Stops following the component.
+     */
+    void untrack() {
+      if (observer != null && observer.isAlive()) {
+        observer.removeOnPreDrawListener(this);
+      }
+      observer = null;
+      tour = null;
+    }
+
+    @Override
+    public boolean onPreDraw() {
+      if (tour == null || !tour.isActive() || tour.getCurrentTarget() != this) {
+        untrack();
+        return true;
+      }
+      if (!follow) {
+        placeText();
+        untrack();
+        return true;
+      }
+      float x = point.x;
+      float y = point.y;
+      Path built = shape;
+      recalculate();
+      if (shape != built) {
+        tour.getOverlay().reshapeHole(null, shape, point.x, point.y);
+      } else if (x != point.x || y != point.y) {
+        tour.getOverlay().moveHole(point.x, point.y);
+      }
+      return true;
+    }
+
+    @Override
+    public PointF getPoint() {
+      if (!initialized) {
+        PointF built = target.getPoint();
+        point.set(built.x, built.y);
+        initialized = true;
+      }
+      return point;
+    }
+
+    /**
+     * Returns the radius of the hole, a shaped hole uses half of its current height, so that the text is placed
+     * right outside the shape.
+     */
+    @Override
+    public float getRadius() {
+      if (shape != null) {
+        return shapeHeight / 2f + shapePadding;
+      }
+      return target.getRadius();
+    }
+
+    @Override
+    public View getView() {
+      return target.getView();
+    }
+
+    /**
+     * Moves the target to the component's current center, builds its shape again if the component was resized,
+     * and places the text above or below the hole the same way the target builder does. A lazy target that wasn't
+     * built yet is skipped, since it's built at the component's position anyway.
+     */
+    @Override
+    public void recalculate() {
+      updateShape();
+      if (target instanceof LazyTarget && !((LazyTarget) target).isBuilt()) {
+        return;
+      }
+      getPoint();
+      component.getLocationInWindow(location);
+      float x = location[0] + component.getWidth() / 2f;
+      float y = location[1] + component.getHeight() / 2f;
+      if (x != point.x || y != point.y) {
+        point.set(x, y);
+        moved = true;
+      }
+      placeText();
+    }
+
+    /**
+     * Moves the text container of the target's view next to the hole. The builder positions the container itself,
+     * so the whole view is translated by the distance between that position and the new one.
+     */
+    private void placeText() {
+      View view = target.getView();
+      View parent = (View) view.getParent();
+      if (!(view instanceof ViewGroup) || parent == null || parent.getHeight() == 0) {
+        // the view isn't shown yet, it's placed once its target is shown.
+        return;
+      }
+      View container = ((ViewGroup) view).getChildAt(0);
+      float radius = getRadius();
+      float y;
+      if (point.y > parent.getHeight() / 2f) {
+        y = point.y - radius - TEXT_MARGIN - container.getHeight();
+      } else {
+        y = point.y + radius + TEXT_MARGIN;
+      }
+      view.setTranslationY(y - container.getY());
+    }
+
+    /**
+     * Waits for a scroll container to reach the position it's smooth scrolling to. The position is checked right
+     * before each frame, so the wait ends on the frame the scroll ends, or after SCROLL_TIMEOUT if the scroll is
+     * interrupted.
+     */
+    private static class ScrollWait implements ViewTreeObserver.OnPreDrawListener, Runnable {
+      private final View container;
+      private final int scrollX;
+      private final int scrollY;
+      private final Runnable scrolled;
+      private ViewTreeObserver observer;
+      private boolean done = false;
+
+      ScrollWait(View container, int scrollX, int scrollY, Runnable scrolled) {
+        this.container = container;
+        this.scrollX = scrollX;
+        this.scrollY = scrollY;
+        this.scrolled = scrolled;
+      }
+
+      void start() {
+        observer = container.getViewTreeObserver();
+        observer.addOnPreDrawListener(this);
+        container.postDelayed(this, SCROLL_TIMEOUT);
+      }
+
+      @Override
+      public boolean onPreDraw() {
+        if (container.getScrollX() == scrollX && container.getScrollY() == scrollY) {
+          finish();
+        }
+        return true;
+      }
+
+      @Override
+      public void run() {
+        finish();
+      }
+
+      private void finish() {
+        if (done) {
+          return;
+        }
+        done = true;
+        if (observer.isAlive()) {
+          observer.removeOnPreDrawListener(this);
+        }
+        container.removeCallbacks(this);
+        // the target is shown after the frame, not while the view tree is about to be drawn.
+        container.post(scrolled);
+      }
+    }
+}
@@ -0,0 +1,150 @@
+// -*- mode: java; c-basic-offset: 2; -*-
+// Released under the GNU General Public License v3.0
+// https://www.gnu.org/licenses/gpl-3.0.en.html
+
+package io.mohamed.CustomSpotlight;
+
+import android.content.res.AssetManager;
+import android.graphics.Typeface;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A process wide cache of the loaded typefaces, keyed by their resolved path. Typefaces are prefetched on the
+ * background worker, and are only decoded on the UI thread when a spotlight needs them before they're ready.
+ */
+final class TypefaceCache {
+    /**
+     * Receives the result of loading a typeface, on the UI thread.
+     */
+    interface Callback {
+      void onLoaded(Typeface typeface);
+
+      void onFailed(Exception e);
+    }
+
+    private static final String ASSET_PREFIX = "asset:";
+    private static final ConcurrentHashMap<String, Typeface> TYPEFACES = new ConcurrentHashMap<>();
+    // the callbacks waiting for each typeface that is currently being decoded, only used on the UI thread.
+    private static final HashMap<String, ArrayList<Callback>> PENDING = new HashMap<>();
+
+    private TypefaceCache() {
+    }
+
+    /**
+     * Returns the cache key of an asset typeface.
+     */
+    static String assetKey(String path) {
+      return ASSET_PREFIX + path;
+    }
+
+    /**
+     * Returns the cache key of a file typeface.
+     */
+    static String fileKey(String path) {
+      return path;
+    }
+
+    /**
+     * Returns the typeface with the given key, if it's already loaded.
+     *
+     * @return the typeface, or null if it's not loaded yet
+     */
+    static Typeface get(String key) {
+      return TYPEFACES.get(key);
+    }
+
+    /**
+     * Returns the typeface with the given key, decoding it on the calling thread if it's not loaded yet. Used when a
+     * spotlight is shown before the background decode of its typeface finishes.
+     *
+     * @param assets the asset manager used to load asset typefaces
+     * @param key the typeface key, created using assetKey or fileKey
+     * @return the typeface
+     * @throws RuntimeException if the typeface can't be decoded
+     */
+    static Typeface require(AssetManager assets, String key) {
+      Typeface typeface = TYPEFACES.get(key);
+      if (typeface == null) {
+        typeface = decode(assets, key);
+        Typeface loaded = TYPEFACES.putIfAbsent(key, typeface);
+        if (loaded != null) {
+          typeface = loaded;
+        }
+      }
+      return typeface;
+    }
+
+    /**
+     * Loads the typeface with the given key, should be called on the UI thread. The callback is always called
+     * asynchronously, even if the typeface is already loaded.
+     *
+     * @param assets the asset manager used to load asset typefaces
+     * @param key the typeface key, created using assetKey or fileKey
+     * @param callback called on the UI thread once the typeface is loaded
+     */
+    static void load(final AssetManager assets, final String key, final Callback callback) {
+      final Typeface cached = TYPEFACES.get(key);
+      if (cached != null) {
+        BackgroundWorker.postToMain(new Runnable() {
+          @Override
+          public void run() {
+            callback.onLoaded(cached);
+          }
+        });
+        return;
+      }
+      ArrayList<Callback> callbacks = PENDING.get(key);
+      if (callbacks != null) {
+        // the typeface is already being decoded.
+        callbacks.add(callback);
+        return;
+      }
+      callbacks = new ArrayList<>();
+      callbacks.add(callback);
+      PENDING.put(key, callbacks);
+      BackgroundWorker.execute(new Runnable() {
+        @Override
+        public void run() {
+          Typeface typeface = null;
+          Exception error = null;
+          try {
+            typeface = decode(assets, key);
+            // the typeface may have been decoded on the UI thread meanwhile, by a spotlight that needed it.
+            Typeface loaded = TYPEFACES.putIfAbsent(key, typeface);
+            if (loaded != null) {
+              typeface = loaded;
+            }
+          } catch (Exception e) {
+            error = e;
+          }
+          final Typeface result = typeface;
+          final Exception failure = error;
+          BackgroundWorker.postToMain(new Runnable() {
+            @Override
+            public void run() {
+              for (Callback waiting : PENDING.remove(key)) {
+                if (failure == null) {
+                  waiting.onLoaded(result);
+                } else {
+                  waiting.onFailed(failure);
+                }
+              }
+            }
+          });
+        }
+      });
+    }
+
+    /**
+     * Decodes the typeface with the given key.
+     */
+    private static Typeface decode(AssetManager assets, String key) {
+      if (key.startsWith(ASSET_PREFIX)) {
+        return Typeface.createFromAsset(assets, key.substring(ASSET_PREFIX.length()));
+      }
+      return Typeface.createFromFile(key);
+    }
+}